@@ -0,0 +1,10 @@
+package com.growthtracker.config;
+
+/**
+ * A data migration or backfill that must finish before the application serves requests.
+ * Implementations are beans; StartupMigrationRunner runs them in @Order order.
+ */
+public interface StartupMigration {
+
+    void migrate();
+}
@@ -0,0 +1,31 @@
+package com.growthtracker.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Runs every StartupMigration once all singletons exist but before the embedded web
+ * server starts, so no request can see half-migrated data (or cache it in the per-user
+ * read models). CommandLineRunners would run only after the server accepts traffic.
+ * A failing migration fails startup.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StartupMigrationRunner implements SmartInitializingSingleton {
+
+    /** Sorted by @Order */
+    private final List<StartupMigration> migrations;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (StartupMigration migration : migrations) {
+            log.debug("Running startup migration {}", migration.getClass().getSimpleName());
+            migration.migrate();
+        }
+    }
+}
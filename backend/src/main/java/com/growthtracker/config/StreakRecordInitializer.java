@@ -0,0 +1,40 @@
+package com.growthtracker.config;
+
+import com.growthtracker.model.DailySummary;
+import com.growthtracker.model.StreakRecord;
+import com.growthtracker.repository.DailySummaryRepository;
+import com.growthtracker.repository.StreakRecordRepository;
+import com.growthtracker.service.UserScope;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfills the default user's StreakRecord document on startup if it does not exist yet,
+ * using the highest longestStreak found in their existing daily summaries. Records of
+ * other users are created by their first summary recompute.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StreakRecordInitializer implements StartupMigration {
+
+    private final StreakRecordRepository streakRecordRepository;
+    private final DailySummaryRepository dailySummaryRepository;
+
+    @Override
+    public void migrate() {
+        String id = UserScope.key(UserScope.DEFAULT_USER_ID, StreakRecord.GLOBAL_ID);
+        if (!streakRecordRepository.existsById(id)) {
+            int longest = dailySummaryRepository.findFirstByUserIdOrderByLongestStreakDesc(UserScope.DEFAULT_USER_ID)
+                .map(DailySummary::getLongestStreak)
+                .orElse(0);
+            streakRecordRepository.save(StreakRecord.builder()
+                .id(id)
+                .userId(UserScope.DEFAULT_USER_ID)
+                .longestStreak(longest)
+                .build());
+            log.info("Initialized streak record with longest streak {}.", longest);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.growthtracker.config;
+
+import com.growthtracker.model.Task;
+import com.growthtracker.service.SuggestionContext;
+import com.growthtracker.service.SuggestionRule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * Built-in suggestion rules, checked in priority order:
+ *  1. No tasks exist → onboarding message
+ *  2. Any Gym/Health task missed 3 consecutive days → health consistency message
+ *  3. Any Interview task completed < 2 times last 7 days → readiness message
+ *  4. weeklyAverage < 50 → performance message
+ *  5. streak == 0 (broken) → momentum message
+ *  6. streak >= 7 → praise message
+ *  7. Default motivational message
+ *
+ * Further rules can be added as SuggestionRule beans with an @Order between these.
+ */
+@Configuration
+public class SuggestionRulesConfig {
+
+    private static final int MISSED_DAYS = 3;
+    private static final int MIN_INTERVIEW_SESSIONS = 2;
+
+    @Bean
+    @Order(100)
+    public SuggestionRule noTasksRule() {
+        return ctx -> ctx.tasks().isEmpty()
+            ? Optional.of("🚀 Start by adding your first task! Consistent tracking is the first step to growth.")
+            : Optional.empty();
+    }
+
+    @Bean
+    @Order(200)
+    public SuggestionRule healthConsistencyRule() {
+        return ctx -> {
+            boolean missed = ctx.tasksMatching("gym").stream()
+                .anyMatch(t -> missedLastDays(ctx, t))
+                || ctx.tasksMatching("health").stream().anyMatch(t -> missedLastDays(ctx, t));
+            return missed
+                ? Optional.of("🏋️ Your health routine needs consistency. You've missed Gym/Health for 3 consecutive days — get back on track!")
+                : Optional.empty();
+        };
+    }
+
+    @Bean
+    @Order(300)
+    public SuggestionRule interviewPreparationRule() {
+        return ctx -> ctx.tasksMatching("interview").stream()
+                .anyMatch(t -> ctx.completions(t.getId()) < MIN_INTERVIEW_SESSIONS)
+            ? Optional.of("📋 Increase interview preparation to improve placement readiness. Aim for at least 3 sessions per week!")
+            : Optional.empty();
+    }
+
+    @Bean
+    @Order(400)
+    public SuggestionRule lowWeeklyAverageRule() {
+        return ctx -> ctx.weeklyAverage() < 50.0
+            ? Optional.of("📉 Your performance is below your potential. Focus on completing at least 70% of your tasks daily to build momentum!")
+            : Optional.empty();
+    }
+
+    @Bean
+    @Order(500)
+    public SuggestionRule brokenStreakRule() {
+        return ctx -> ctx.streakDaysAgo(0).orElse(-1) == 0 && ctx.streakDaysAgo(1).orElse(0) > 0
+            ? Optional.of("💫 Don't let one bad day stop your momentum. Your streak was broken, but you can start a new one today!")
+            : Optional.empty();
+    }
+
+    @Bean
+    @Order(600)
+    public SuggestionRule longStreakRule() {
+        return ctx -> {
+            int streak = ctx.streakDaysAgo(0).orElse(-1);
+            return streak >= 7
+                ? Optional.of("🔥 Incredible! You've maintained a " + streak + "-day streak! Keep pushing — consistency is your superpower!")
+                : Optional.empty();
+        };
+    }
+
+    @Bean
+    @Order(Integer.MAX_VALUE)
+    public SuggestionRule defaultRule() {
+        return ctx -> Optional.of("✅ You're making progress! Keep completing your tasks daily to build an unbreakable streak. You've got this!");
+    }
+
+    /** True if the task was not completed on any of the MISSED_DAYS days before today. */
+    private static boolean missedLastDays(SuggestionContext ctx, Task task) {
+        return IntStream.rangeClosed(1, MISSED_DAYS)
+            .noneMatch(daysAgo -> ctx.completedDaysAgo(task.getId(), daysAgo));
+    }
+}
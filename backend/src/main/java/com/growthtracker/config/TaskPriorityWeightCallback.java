@@ -0,0 +1,21 @@
+package com.growthtracker.config;
+
+import com.growthtracker.model.Priority;
+import com.growthtracker.model.Task;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps Task.prioWeight in step with Task.priority on every save and insert,
+ * whether it goes through TaskRepository or MongoTemplate.
+ */
+@Component
+public class TaskPriorityWeightCallback implements BeforeConvertCallback<Task> {
+
+    @Override
+    public Task onBeforeConvert(Task task, String collection) {
+        Priority priority = task.getPriority() != null ? task.getPriority() : Priority.MEDIUM;
+        task.setPrioWeight(priority.getWeight());
+        return task;
+    }
+}
@@ -0,0 +1,46 @@
+package com.growthtracker.config;
+
+import com.growthtracker.model.Priority;
+import com.growthtracker.model.Task;
+import com.growthtracker.service.TaskCatalog;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfills Task.prioWeight on startup for tasks saved before the field existed
+ * (or whose priority was changed outside the application), one updateMulti per priority.
+ * History and dashboard priority sorts read this field directly from the index.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskPriorityWeightInitializer implements StartupMigration {
+
+    private final MongoTemplate mongoTemplate;
+    private final TaskCatalog taskCatalog;
+
+    @Override
+    public void migrate() {
+        long modified = 0;
+        for (Priority priority : Priority.values()) {
+            modified += backfill(Criteria.where("priority").is(priority.name()), priority.getWeight());
+        }
+        // Tasks without a priority are treated as MEDIUM, as on save
+        modified += backfill(Criteria.where("priority").is(null), Priority.MEDIUM.getWeight());
+        if (modified > 0) {
+            log.info("Backfilled prioWeight on {} tasks", modified);
+            taskCatalog.invalidateAll();
+        }
+    }
+
+    private long backfill(Criteria match, int weight) {
+        Query stale = new Query(match.and("prioWeight").ne(weight));
+        return mongoTemplate.updateMulti(stale, new Update().set("prioWeight", weight), Task.class)
+            .getModifiedCount();
+    }
+}
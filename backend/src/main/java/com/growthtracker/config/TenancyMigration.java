@@ -0,0 +1,171 @@
+package com.growthtracker.config;
+
+import com.growthtracker.model.DailySummary;
+import com.growthtracker.model.StreakRecord;
+import com.growthtracker.model.Task;
+import com.growthtracker.model.TaskStatus;
+import com.growthtracker.model.TimeSpentSketch;
+import com.growthtracker.service.TaskCatalog;
+import com.growthtracker.service.UserScope;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Moves single-user data into the default user's tenancy on startup, before the web
+ * server accepts requests and before the other startup migrations run.
+ *
+ * - Documents written before tenancy get userId = "default".
+ * - Summaries, the streak record and time-spent sketches keyed by a bare date or scope
+ *   are re-keyed to "default:<key>" (see UserScope.key). The original is deleted before
+ *   its copy is written, since (userId, date) is unique on dailySummary; all three are
+ *   derived data that the rebuild endpoints can regenerate if a run is cut short.
+ * - Indexes that are not prefixed with userId are dropped; the unique title index in
+ *   particular would stop two users from using the same title.
+ * - The userId-prefixed text index over title, category and completionNote is created
+ *   here, because @TextIndexed cannot express a prefix key.
+ *
+ * Every step is idempotent, so later startups only pay for a few index listings.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class TenancyMigration implements StartupMigration {
+
+    private final MongoTemplate mongoTemplate;
+    private final TaskCatalog taskCatalog;
+
+    private static final String TEXT_INDEX = "userId_text_idx";
+
+    /** Writes per bulk request while re-keying (two per document) */
+    private static final int REKEY_BATCH = 1000;
+
+    /** Index names created by the single-user models */
+    private static final Map<Class<?>, Set<String>> LEGACY_INDEXES = Map.of(
+        Task.class, Set.of("title", "category", "status", "completedAt", "priority",
+            "status_prioWeight_idx", "status_completedAt_id_idx", "status_timeSpent_id_idx",
+            "status_prioWeight_completedAt_idx"),
+        TaskStatus.class, Set.of("taskId_date_idx"),
+        DailySummary.class, Set.of("date"));
+
+    @Override
+    public void migrate() {
+        long assigned = 0;
+        for (Class<?> type : List.of(Task.class, TaskStatus.class, DailySummary.class,
+                StreakRecord.class, TimeSpentSketch.class)) {
+            assigned += mongoTemplate.updateMulti(
+                    new Query(Criteria.where("userId").exists(false)),
+                    new Update().set("userId", UserScope.DEFAULT_USER_ID), type)
+                .getModifiedCount();
+        }
+        if (assigned > 0) {
+            log.info("Assigned {} pre-tenancy documents to user '{}'", assigned, UserScope.DEFAULT_USER_ID);
+            taskCatalog.invalidateAll();
+        }
+
+        for (Class<?> type : List.of(DailySummary.class, StreakRecord.class, TimeSpentSketch.class)) {
+            rekeyDefaultUser(type);
+        }
+
+        LEGACY_INDEXES.forEach(this::dropIndexes);
+        ensureTextIndex();
+    }
+
+    private void rekeyDefaultUser(Class<?> type) {
+        MongoCollection<Document> collection = mongoTemplate.getCollection(mongoTemplate.getCollectionName(type));
+        String prefix = UserScope.key(UserScope.DEFAULT_USER_ID, "");
+        Bson bare = Filters.and(
+            Filters.eq("userId", UserScope.DEFAULT_USER_ID),
+            Filters.type("_id", BsonType.STRING),
+            Filters.not(Filters.regex("_id", "^" + Pattern.quote(prefix))));
+
+        List<WriteModel<Document>> batch = new ArrayList<>();
+        long rekeyed = 0;
+        for (Document legacy : collection.find(bare)) {
+            String oldId = legacy.getString("_id");
+            Document copy = new Document(legacy).append("_id", prefix + oldId);
+            batch.add(new DeleteOneModel<>(Filters.eq("_id", oldId)));
+            batch.add(new ReplaceOneModel<>(Filters.eq("_id", copy.getString("_id")), copy,
+                new ReplaceOptions().upsert(true)));
+            if (batch.size() >= REKEY_BATCH) {
+                collection.bulkWrite(batch, new BulkWriteOptions().ordered(true));
+                batch.clear();
+            }
+            rekeyed++;
+        }
+        if (!batch.isEmpty()) {
+            collection.bulkWrite(batch, new BulkWriteOptions().ordered(true));
+        }
+        if (rekeyed > 0) {
+            log.info("Re-keyed {} documents of user '{}' in {}", rekeyed, UserScope.DEFAULT_USER_ID,
+                collection.getNamespace().getCollectionName());
+        }
+    }
+
+    private void dropIndexes(Class<?> type, Set<String> names) {
+        MongoCollection<Document> collection = mongoTemplate.getCollection(mongoTemplate.getCollectionName(type));
+        List<String> present = new ArrayList<>();
+        collection.listIndexes().forEach(index -> {
+            if (names.contains(index.getString("name"))) {
+                present.add(index.getString("name"));
+            }
+        });
+        for (String name : present) {
+            collection.dropIndex(name);
+            log.info("Dropped legacy index {} on {}", name, collection.getNamespace().getCollectionName());
+        }
+    }
+
+    /** A collection can have only one text index, so an unprefixed one is replaced. */
+    private void ensureTextIndex() {
+        MongoCollection<Document> tasks = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Task.class));
+        List<String> stale = new ArrayList<>();
+        boolean present = false;
+        for (Document index : tasks.listIndexes()) {
+            Document key = index.get("key", Document.class);
+            if (!"text".equals(key.get("_fts"))) {
+                continue;
+            }
+            if (key.containsKey("userId")) {
+                present = true;
+            } else {
+                stale.add(index.getString("name"));
+            }
+        }
+        stale.forEach(tasks::dropIndex);
+
+        if (!present) {
+            tasks.createIndex(
+                Indexes.compoundIndex(Indexes.ascending("userId"),
+                    Indexes.text("title"), Indexes.text("category"), Indexes.text("completionNote")),
+                new IndexOptions().name(TEXT_INDEX)
+                    .weights(new Document("title", 3).append("category", 2).append("completionNote", 1)));
+            log.info("Created text index {} on tasks", TEXT_INDEX);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.growthtracker.config;
+
+import com.growthtracker.repository.TimeSpentSketchRepository;
+import com.growthtracker.service.TimeSpentAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfills the time-spent sketches on startup if none exist yet,
+ * from tasks that were completed before the sketches were introduced.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TimeSpentSketchInitializer implements StartupMigration {
+
+    private final TimeSpentSketchRepository timeSpentSketchRepository;
+    private final TimeSpentAnalyticsService timeSpentAnalyticsService;
+
+    @Override
+    public void migrate() {
+        if (timeSpentSketchRepository.count() == 0) {
+            log.info("Backfilling time-spent sketches...");
+            timeSpentAnalyticsService.rebuild();
+        }
+    }
+}
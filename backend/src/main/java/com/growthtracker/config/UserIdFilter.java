@@ -0,0 +1,117 @@
+package com.growthtracker.config;
+
+import com.growthtracker.service.UserScope;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Binds the X-User-Id header to UserScope for the request. Requests without the
+ * header or with a malformed id are rejected with 400; clients act for the default
+ * user (owner of the pre-tenancy data) by sending it explicitly.
+ *
+ * The application has no login of its own, so the header is only an authenticated
+ * identity when user-id.signing-secret is set. Then an authenticating gateway in front
+ * of the API must also send X-User-Signature, the unpadded base64url HMAC-SHA256 of the
+ * user id under that secret, and requests with a missing or wrong signature get 401.
+ * Without a secret the header is trusted as sent: any client can act for any user,
+ * including "default", so per-user scoping only separates data and is not access
+ * control. A warning is logged at startup in that mode.
+ */
+@Slf4j
+@Component
+public class UserIdFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-User-Id";
+    public static final String SIGNATURE_HEADER = "X-User-Signature";
+
+    private static final String HMAC = "HmacSHA256";
+
+    /** Null when identities are not signed */
+    private final SecretKeySpec signingKey;
+
+    public UserIdFilter(@Value("${user-id.signing-secret:}") String signingSecret) {
+        if (StringUtils.hasText(signingSecret)) {
+            this.signingKey = new SecretKeySpec(signingSecret.getBytes(StandardCharsets.UTF_8), HMAC);
+        } else {
+            this.signingKey = null;
+            log.warn("user-id.signing-secret is not set: {} is trusted as sent, so any client can act "
+                + "for any user. Per-user scoping is not access control in this mode.", HEADER);
+        }
+    }
+
+    /** CORS preflights never carry custom headers, and only /api acts for a user. */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return CorsUtils.isPreFlightRequest(request) || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        String header = request.getHeader(HEADER);
+        if (!StringUtils.hasText(header)) {
+            reject(response, HttpStatus.BAD_REQUEST, "Missing " + HEADER + " header");
+            return;
+        }
+        String userId = header.trim();
+        if (!UserScope.isValid(userId)) {
+            reject(response, HttpStatus.BAD_REQUEST, "Invalid " + HEADER + " header");
+            return;
+        }
+        if (signingKey != null && !hasValidSignature(userId, request.getHeader(SIGNATURE_HEADER))) {
+            reject(response, HttpStatus.UNAUTHORIZED, "Missing or invalid " + SIGNATURE_HEADER + " header");
+            return;
+        }
+
+        UserScope.bind(userId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            UserScope.clear();
+        }
+    }
+
+    private boolean hasValidSignature(String userId, String signature) {
+        if (!StringUtils.hasText(signature)) {
+            return false;
+        }
+        byte[] expected = sign(signingKey, userId).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, signature.trim().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /** The X-User-Signature value for the user id under the given key. */
+    static String sign(SecretKeySpec key, String userId) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(key);
+            byte[] digest = mac.doFinal(userId.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(HMAC + " is not available", ex);
+        }
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"status\":" + status.value() + ",\"message\":\"" + message + "\"}");
+    }
+}
@@ -0,0 +1,30 @@
+package com.growthtracker.controller;
+
+import com.growthtracker.dto.SummaryRebuildDTO;
+import com.growthtracker.service.SummaryRebuildService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final SummaryRebuildService summaryRebuildService;
+
+    /**
+     * Regenerates every daily summary from the full status history.
+     * POST /api/admin/summaries/rebuild
+     */
+    @PostMapping("/summaries/rebuild")
+    public ResponseEntity<SummaryRebuildDTO> rebuildSummaries() {
+        return ResponseEntity.ok(summaryRebuildService.rebuildAll());
+    }
+
+    /** GET /api/admin/summaries/rebuild — progress of the running (or last) rebuild */
+    @GetMapping("/summaries/rebuild")
+    public ResponseEntity<SummaryRebuildDTO> getRebuildProgress() {
+        return ResponseEntity.ok(summaryRebuildService.getProgress());
+    }
+}
@@ -1,12 +1,20 @@
 package com.growthtracker.controller;
 
+import com.growthtracker.dto.CategoryTrendDTO;
+import com.growthtracker.dto.HeatmapDTO;
+import com.growthtracker.dto.RangeAnalyticsDTO;
+import com.growthtracker.dto.TimeSpentAnalyticsDTO;
 import com.growthtracker.dto.WeeklyAnalyticsDTO;
 import com.growthtracker.service.AnalyticsService;
+import com.growthtracker.service.HeatmapService;
 import com.growthtracker.service.SuggestionService;
+import com.growthtracker.service.TimeSpentAnalyticsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.Map;
 
 @RestController
@@ -16,6 +24,19 @@ public class AnalyticsController {
 
     private final AnalyticsService analyticsService;
     private final SuggestionService suggestionService;
+    private final HeatmapService heatmapService;
+    private final TimeSpentAnalyticsService timeSpentAnalyticsService;
+
+    /**
+     * GET /api/analytics?from=YYYY-MM-DD&to=YYYY-MM-DD
+     * Analytics over any range (e.g. 30, 90 or 365 days).
+     */
+    @GetMapping
+    public ResponseEntity<RangeAnalyticsDTO> getRangeAnalytics(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(analyticsService.getRangeAnalytics(from, to));
+    }
 
     /** GET /api/analytics/weekly */
     @GetMapping("/weekly")
@@ -29,6 +50,61 @@ public class AnalyticsController {
         return ResponseEntity.ok(analyticsService.getCategoryAnalytics());
     }
 
+    /**
+     * GET /api/analytics/category/trend?from=YYYY-MM-DD&to=YYYY-MM-DD&granularity=day|week|month
+     * Per-category completion counts per time bucket.
+     */
+    @GetMapping("/category/trend")
+    public ResponseEntity<CategoryTrendDTO> getCategoryTrend(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String granularity) {
+        return ResponseEntity.ok(analyticsService.getCategoryTrend(from, to, granularity));
+    }
+
+    /**
+     * GET /api/analytics/heatmap?from=YYYY-MM-DD&to=YYYY-MM-DD&encoding=packed|rle
+     * Daily completion levels (0–4). Defaults to the year ending today.
+     */
+    @GetMapping("/heatmap")
+    public ResponseEntity<HeatmapDTO> getHeatmap(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "packed") String encoding) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(364);
+        return ResponseEntity.ok(heatmapService.getHeatmap(start, end, encoding));
+    }
+
+    /**
+     * GET /api/analytics/heatmap/task/{taskId}?from=YYYY-MM-DD&to=YYYY-MM-DD&encoding=packed|rle
+     * Per-task completion levels (0/1). Defaults to the year ending today.
+     */
+    @GetMapping("/heatmap/task/{taskId}")
+    public ResponseEntity<HeatmapDTO> getTaskHeatmap(
+            @PathVariable String taskId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "packed") String encoding) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(364);
+        return ResponseEntity.ok(heatmapService.getTaskHeatmap(taskId, start, end, encoding));
+    }
+
+    /**
+     * GET /api/analytics/time-spent?from=YYYY-MM-DD&to=YYYY-MM-DD
+     * Time-spent percentiles and totals: all-time, per category and per week.
+     * Defaults to the 12 weeks ending today.
+     */
+    @GetMapping("/time-spent")
+    public ResponseEntity<TimeSpentAnalyticsDTO> getTimeSpentAnalytics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusWeeks(11);
+        return ResponseEntity.ok(timeSpentAnalyticsService.getAnalytics(start, end));
+    }
+
     /** GET /api/suggestions */
     @GetMapping("/suggestions")
     public ResponseEntity<Map<String, String>> getSuggestion() {
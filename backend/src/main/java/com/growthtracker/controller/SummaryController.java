@@ -2,6 +2,7 @@ package com.growthtracker.controller;
 
 import com.growthtracker.model.DailySummary;
 import com.growthtracker.service.DailySummaryService;
+import com.growthtracker.service.SummaryRecomputeQueue;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -15,14 +16,18 @@ import java.time.LocalDate;
 public class SummaryController {
 
     private final DailySummaryService dailySummaryService;
+    private final SummaryRecomputeQueue summaryRecomputeQueue;
 
     /**
      * GET /api/summary?date=YYYY-MM-DD
      * Returns the daily summary. If no record exists returns a blank summary.
+     * Waits for any queued recompute of that date so recent status changes are visible;
+     * if that recompute failed the request fails too, instead of returning a stale summary.
      */
     @GetMapping
     public ResponseEntity<DailySummary> getSummary(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        summaryRecomputeQueue.await(date);
         return ResponseEntity.ok(dailySummaryService.getSummary(date));
     }
 }
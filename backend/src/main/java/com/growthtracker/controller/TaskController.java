@@ -2,14 +2,23 @@ package com.growthtracker.controller;
 
 import com.growthtracker.dto.CompleteTaskRequest;
 import com.growthtracker.dto.TaskDTO;
+import com.growthtracker.dto.TaskHistoryFacetsDTO;
 import com.growthtracker.dto.TaskHistoryFilterRequest;
+import com.growthtracker.dto.TaskHistoryPageDTO;
+import com.growthtracker.dto.TaskImportResultDTO;
+import com.growthtracker.dto.TaskPageDTO;
 import com.growthtracker.model.Task;
+import com.growthtracker.service.TaskHistoryExportService;
+import com.growthtracker.service.TaskImportService;
 import com.growthtracker.service.TaskService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -19,17 +28,43 @@ import java.util.List;
 public class TaskController {
 
     private final TaskService taskService;
+    private final TaskHistoryExportService taskHistoryExportService;
+    private final TaskImportService taskImportService;
 
     @GetMapping
     public ResponseEntity<List<Task>> getAllTasks() {
         return ResponseEntity.ok(taskService.getAllTasks());
     }
 
+    /**
+     * GET /api/tasks/page?page=0&size=50
+     * Tasks in dashboard order (pending first, then highest priority), paged by the database.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<TaskPageDTO> getTasksPage(@RequestParam(defaultValue = "0") int page,
+                                                    @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(taskService.getTasksPage(page, size));
+    }
+
     @PostMapping
     public ResponseEntity<Task> createTask(@Valid @RequestBody TaskDTO dto) {
         return ResponseEntity.status(HttpStatus.CREATED).body(taskService.createTask(dto));
     }
 
+    /**
+     * POST /api/tasks/import  (application/json: array of tasks, text/csv: header + rows)
+     * Creates many tasks at once and reports CREATED / DUPLICATE / INVALID per row.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<TaskImportResultDTO> importTasks(@RequestBody List<TaskDTO> tasks) {
+        return ResponseEntity.ok(taskImportService.importJson(tasks));
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<TaskImportResultDTO> importTasksCsv(@RequestBody String csv) {
+        return ResponseEntity.ok(taskImportService.importCsv(csv));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Task> updateTask(@PathVariable String id,
                                            @Valid @RequestBody TaskDTO dto) {
@@ -57,4 +92,37 @@ public class TaskController {
     public List<Task> getTaskHistory(@RequestBody TaskHistoryFilterRequest filters) {
         return taskService.getTaskHistory(filters);
     }
+
+    /**
+     * POST /api/tasks/history/facets
+     * Same filters and sorts as /history; also returns the total and counts by category, priority and month.
+     */
+    @PostMapping("/history/facets")
+    public ResponseEntity<TaskHistoryFacetsDTO> getTaskHistoryFacets(@RequestBody TaskHistoryFilterRequest filters) {
+        return ResponseEntity.ok(taskService.getTaskHistoryFacets(filters));
+    }
+
+    /**
+     * GET /api/tasks/history/export?format=ndjson|csv&category=...&sortBy=...
+     * Streams every matching history row; accepts the same filters as /history as query parameters.
+     */
+    @GetMapping("/history/export")
+    public ResponseEntity<StreamingResponseBody> exportTaskHistory(
+            @ModelAttribute TaskHistoryFilterRequest filters,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        TaskHistoryExportService.Format exportFormat = TaskHistoryExportService.Format.of(format);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + exportFormat.getFileName() + "\"")
+            .body(taskHistoryExportService.export(filters, exportFormat));
+    }
+
+    /**
+     * POST /api/tasks/history/cursor
+     * Same filters and sorts as /history, paged with the cursor from the previous response.
+     */
+    @PostMapping("/history/cursor")
+    public ResponseEntity<TaskHistoryPageDTO> getTaskHistoryPage(@RequestBody TaskHistoryFilterRequest filters) {
+        return ResponseEntity.ok(taskService.getTaskHistoryPage(filters));
+    }
 }
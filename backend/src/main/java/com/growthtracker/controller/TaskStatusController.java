@@ -1,8 +1,12 @@
 package com.growthtracker.controller;
 
+import com.growthtracker.dto.BatchStatusRequest;
+import com.growthtracker.dto.BatchStatusResultDTO;
+import com.growthtracker.dto.TaskStatusRangeDTO;
 import com.growthtracker.dto.TaskWithStatusDTO;
 import com.growthtracker.model.TaskStatus;
 import com.growthtracker.service.TaskStatusService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +22,17 @@ public class TaskStatusController {
 
     private final TaskStatusService taskStatusService;
 
+    /**
+     * Mark many tasks/dates in one request.
+     * POST /api/status/batch  body: {"entries": [{"taskId": "...", "date": "YYYY-MM-DD", "completed": true}]}
+     * Returns one result per entry saying whether it was applied.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchStatusResultDTO>> markStatusBatch(
+            @Valid @RequestBody BatchStatusRequest request) {
+        return ResponseEntity.ok(taskStatusService.markStatusBatch(request));
+    }
+
     /**
      * Mark a task as completed or not completed for a given date.
      * POST /api/status/{taskId}?date=YYYY-MM-DD&completed=true
@@ -39,4 +54,15 @@ public class TaskStatusController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
         return ResponseEntity.ok(taskStatusService.getTasksWithStatus(date));
     }
+
+    /**
+     * Get per-task completion bitmaps for every date in a range (inclusive).
+     * GET /api/status/range?from=YYYY-MM-DD&to=YYYY-MM-DD
+     */
+    @GetMapping("/range")
+    public ResponseEntity<TaskStatusRangeDTO> getStatusRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(taskStatusService.getStatusRange(from, to));
+    }
 }
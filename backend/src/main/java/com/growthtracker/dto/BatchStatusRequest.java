@@ -0,0 +1,37 @@
+package com.growthtracker.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for marking many (task, date) statuses in one request.
+ * Entries are validated individually so one bad row does not reject the whole batch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchStatusRequest {
+
+    @NotEmpty(message = "At least one entry is required")
+    @Size(max = 1000, message = "A batch cannot exceed 1000 entries")
+    private List<Entry> entries;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private String taskId;
+        private LocalDate date;
+
+        @Builder.Default
+        private boolean completed = true;
+    }
+}
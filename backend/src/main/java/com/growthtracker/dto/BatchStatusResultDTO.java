@@ -0,0 +1,28 @@
+package com.growthtracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Per-entry outcome of a batch status request, in request order.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchStatusResultDTO {
+
+    /** Position of the entry in the request */
+    private int index;
+    private String taskId;
+    private LocalDate date;
+    private boolean completed;
+    private boolean success;
+
+    /** Reason the entry was not applied; null on success */
+    private String error;
+}
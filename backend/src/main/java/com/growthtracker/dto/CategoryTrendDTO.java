@@ -0,0 +1,34 @@
+package com.growthtracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for per-category completion trend lines.
+ * Every series in {@code categories} is aligned with {@code buckets}:
+ * categories.get("Health").get(i) is the completion count for buckets.get(i).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryTrendDTO {
+
+    private LocalDate from;
+    private LocalDate to;
+
+    /** "day", "week" (buckets start on Monday) or "month" */
+    private String granularity;
+
+    /** Start date of each bucket, ascending */
+    private List<LocalDate> buckets;
+
+    /** Category → completion count per bucket */
+    private Map<String, List<Long>> categories;
+}
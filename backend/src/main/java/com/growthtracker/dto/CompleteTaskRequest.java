@@ -1,5 +1,6 @@
 package com.growthtracker.dto;
 
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
@@ -18,5 +19,6 @@ public class CompleteTaskRequest {
     @Size(max = 2000, message = "Note cannot exceed 2000 characters")
     private String note;
 
+    @Min(value = 0, message = "Time spent cannot be negative")
     private Integer timeSpent;
 }
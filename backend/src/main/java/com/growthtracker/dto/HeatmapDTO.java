@@ -0,0 +1,40 @@
+package com.growthtracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Compact contribution heatmap over a date range.
+ *
+ * Each day is quantized to a level in [0, maxLevel] and sent in one of two encodings:
+ * - "packed": {@code data} is Base64 of one 4-bit level per day, two days per byte,
+ *   low nibble first (day from + 2k in the low nibble of byte k).
+ * - "rle": {@code runs} is a flat list of [level, length, level, length, ...].
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeatmapDTO {
+
+    private LocalDate from;
+    private LocalDate to;
+    private int days;
+
+    /** Set for the per-task variant only */
+    private String taskId;
+
+    private int maxLevel;
+    private String encoding;
+
+    /** Packed levels; null when encoding is "rle" */
+    private String data;
+
+    /** Run-length segments; null when encoding is "packed" */
+    private List<Integer> runs;
+}
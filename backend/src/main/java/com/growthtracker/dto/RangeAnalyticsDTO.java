@@ -0,0 +1,57 @@
+package com.growthtracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for the arbitrary-range analytics endpoint.
+ * Includes completion totals, the average daily completion, per-task counts and
+ * a per-day percentage breakdown for every day in the range.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RangeAnalyticsDTO {
+
+    private LocalDate from;
+    private LocalDate to;
+    private int days;
+
+    /** Completed (task, day) pairs across the range */
+    private long totalCompletions;
+
+    /** Mean of the daily completion percentages */
+    private double averageCompletion;
+
+    private String strongestTask;
+    private String weakestTask;
+
+    private List<TaskCompletion> tasks;
+
+    /** Daily progress for every day in the range — [{date, completionPercentage}] */
+    private List<WeeklyAnalyticsDTO.DailyProgress> dailyProgress;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TaskCompletion {
+        private String taskId;
+        private String title;
+        private String category;
+
+        /** Days in the range with a completed status */
+        private int completedDays;
+
+        /** Days in the range the task was scheduled (1 for One-time tasks) */
+        private int activeDays;
+
+        private double completionRate;
+    }
+}
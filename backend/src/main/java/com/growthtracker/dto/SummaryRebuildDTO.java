@@ -0,0 +1,27 @@
+package com.growthtracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress and result of a full-history daily summary rebuild.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SummaryRebuildDTO {
+
+    private boolean running;
+    private long daysProcessed;
+    private long statusesScanned;
+
+    /** Last date ("YYYY-MM-DD") written so far */
+    private String lastDate;
+
+    private int longestStreak;
+    private long elapsedMs;
+    private double daysPerSecond;
+}
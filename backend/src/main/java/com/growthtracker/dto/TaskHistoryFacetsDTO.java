@@ -0,0 +1,36 @@
+package com.growthtracker.dto;
+
+import com.growthtracker.model.Task;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of task history together with the total match count and
+ * per-category, per-priority and per-month counts over all matches.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskHistoryFacetsDTO {
+
+    private List<Task> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+
+    /** Category → matching tasks, highest count first */
+    private Map<String, Long> byCategory;
+
+    /** Priority → matching tasks, highest count first */
+    private Map<String, Long> byPriority;
+
+    /** "yyyy-MM" of completedAt → matching tasks, ascending */
+    private Map<String, Long> byMonth;
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 
 import java.time.LocalDate;
 
@@ -14,7 +15,9 @@ import java.time.LocalDate;
 @AllArgsConstructor
 public class TaskHistoryFilterRequest {
     private String category;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
     private LocalDate startDate;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
     private LocalDate endDate;
     private Integer minTimeSpent;
     private Integer maxTimeSpent;
@@ -27,4 +30,7 @@ public class TaskHistoryFilterRequest {
     
     @Builder.Default
     private Integer size = 10;
+
+    /** Continuation token from the previous page (keyset paging only; page is ignored) */
+    private String cursor;
 }
@@ -0,0 +1,24 @@
+package com.growthtracker.dto;
+
+import com.growthtracker.model.Task;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset page of task history. Pass nextCursor back as the request's
+ * cursor to fetch the following page; it is null on the last page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskHistoryPageDTO {
+
+    private List<Task> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -0,0 +1,43 @@
+package com.growthtracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk task import: totals plus one entry per input row, in input order.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskImportResultDTO {
+
+    private int created;
+    private int duplicates;
+    private int invalid;
+    private List<Row> rows;
+
+    public enum Status { CREATED, DUPLICATE, INVALID }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Row {
+
+        /** 1-based line in the CSV (header is line 1) or position in the JSON array */
+        private int line;
+        private String title;
+        private Status status;
+
+        /** Id of the created task; null unless CREATED */
+        private String taskId;
+
+        /** Why the row was not imported; null when CREATED */
+        private String error;
+    }
+}
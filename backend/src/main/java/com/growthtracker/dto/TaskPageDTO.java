@@ -0,0 +1,25 @@
+package com.growthtracker.dto;
+
+import com.growthtracker.model.Task;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of tasks, ordered pending first, then by priority weight (highest first).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskPageDTO {
+
+    private List<Task> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    private boolean hasNext;
+}
@@ -0,0 +1,51 @@
+package com.growthtracker.dto;
+
+import com.growthtracker.model.Priority;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO returned when querying task completion status across a date range.
+ *
+ * Each task carries a compact completion bitmap, Base64-encoded:
+ * bit i (byte i / 8, least significant bit first) is day from + i.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskStatusRangeDTO {
+
+    private LocalDate from;
+    private LocalDate to;
+
+    /** Number of days in the range (inclusive), i.e. the bitmap length in bits */
+    private int days;
+
+    private List<TaskRange> tasks;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TaskRange {
+        private String taskId;
+        private String title;
+        private String category;
+        private String frequency;
+        private LocalDate scheduledDate;
+        private String status;
+        private Priority priority;
+
+        /** Base64 completion bitmap over the range */
+        private String completedBitmap;
+
+        /** Number of set bits in the bitmap */
+        private int completedDays;
+    }
+}
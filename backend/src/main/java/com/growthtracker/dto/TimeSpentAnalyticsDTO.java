@@ -0,0 +1,50 @@
+package com.growthtracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * DTO for time-spent analytics (minutes), built from mergeable histogram sketches.
+ * Percentiles are estimates with at most ~12.5% relative error.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeSpentAnalyticsDTO {
+
+    private LocalDate from;
+    private LocalDate to;
+
+    /** All completions ever recorded */
+    private Stats overall;
+
+    /** Completions in the weeks covering [from, to], merged */
+    private Stats range;
+
+    /** Category → all-time stats */
+    private Map<String, Stats> byCategory;
+
+    /** Week start (Monday, YYYY-MM-DD) → stats, ascending */
+    private Map<String, Stats> weekly;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Stats {
+        private long count;
+        private long total;
+        private double mean;
+        private Integer min;
+        private Integer max;
+        private Integer p50;
+        private Integer p90;
+        private Integer p99;
+    }
+}
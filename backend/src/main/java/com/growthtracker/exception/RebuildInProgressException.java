@@ -0,0 +1,11 @@
+package com.growthtracker.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class RebuildInProgressException extends RuntimeException {
+    public RebuildInProgressException() {
+        super("A summary rebuild is already running.");
+    }
+}
@@ -0,0 +1,11 @@
+package com.growthtracker.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class TaskAlreadyCompletedException extends RuntimeException {
+    public TaskAlreadyCompletedException(String id) {
+        super("Task " + id + " is already completed.");
+    }
+}
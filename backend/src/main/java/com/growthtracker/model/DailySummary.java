@@ -5,12 +5,14 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 /**
- * Daily summary document — one per day.
- * Uses YYYY-MM-DD date string as the document _id for O(1) lookup.
+ * Daily summary document — one per user per day.
+ * The _id is the YYYY-MM-DD date scoped to the user (see UserScope.key) for O(1) lookup;
+ * (userId, date) is unique and serves range reads.
  *
  * Streak logic:
  *   - No Daily tasks exist → streak = 0
@@ -25,13 +27,17 @@ import org.springframework.data.mongodb.core.mapping.Document;
 @AllArgsConstructor
 @Builder
 @Document(collection = "dailySummary")
+@CompoundIndexes({
+    @CompoundIndex(name = "userId_date_idx", def = "{'userId': 1, 'date': 1}", unique = true)
+})
 public class DailySummary {
 
-    /** The date string "YYYY-MM-DD" used as the document ID */
+    /** The date string "YYYY-MM-DD" prefixed with the user: "userId:YYYY-MM-DD" (see UserScope.key) */
     @Id
     private String id;
 
-    @Indexed
+    private String userId;
+
     private String date;
 
     private int totalTasks;
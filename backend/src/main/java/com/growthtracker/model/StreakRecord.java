@@ -0,0 +1,32 @@
+package com.growthtracker.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * One document per user holding their all-time longest streak.
+ * Maintained with an atomic $max update whenever a daily summary is saved,
+ * so reading the record never requires scanning the dailySummary collection.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "streakRecord")
+public class StreakRecord {
+
+    /** Document ID of the record, scoped per user with UserScope.key */
+    public static final String GLOBAL_ID = "global";
+
+    @Id
+    private String id;
+
+    private String userId;
+
+    /** Highest streak ever recorded */
+    private int longestStreak;
+}
@@ -9,7 +9,8 @@ import jakarta.validation.constraints.Pattern;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
-import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import org.springframework.data.mongodb.core.mapping.Field;
@@ -19,23 +20,38 @@ import java.time.LocalDateTime;
 
 /**
  * Represents a user-defined growth task (e.g., "Morning Run", "Read Books").
- * Title is unique at DB level via @Indexed(unique = true).
+ * Tasks belong to one user; title is unique per user via userId_title_idx, and every
+ * index leads with userId so queries never touch another user's tasks.
  * Auditing fields are auto-populated by @EnableMongoAuditing.
+ * prioWeight mirrors priority.getWeight() so Mongo can sort by it; it is kept in sync
+ * on every save by TaskPriorityWeightCallback.
+ * title, category and completionNote share one weighted, userId-prefixed text index for
+ * history search, created by TenancyMigration (annotations cannot express the prefix).
  */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 @Document(collection = "tasks")
+@CompoundIndexes({
+    @CompoundIndex(name = "userId_title_idx", def = "{'userId': 1, 'title': 1}", unique = true),
+    @CompoundIndex(name = "userId_status_prioWeight_idx", def = "{'userId': 1, 'status': -1, 'prioWeight': -1, '_id': 1}"),
+    // History keyset sorts (ASC sorts walk these backwards)
+    @CompoundIndex(name = "userId_status_completedAt_id_idx", def = "{'userId': 1, 'status': 1, 'completedAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "userId_status_timeSpent_id_idx", def = "{'userId': 1, 'status': 1, 'timeSpent': -1, '_id': -1}"),
+    @CompoundIndex(name = "userId_status_prioWeight_completedAt_idx",
+        def = "{'userId': 1, 'status': 1, 'prioWeight': -1, 'completedAt': -1, '_id': -1}")
+})
 public class Task {
 
     @Id
     private String id;
 
-    @Indexed(unique = true)
+    /** Owner of the task */
+    private String userId;
+
     private String title;
 
-    @Indexed
     private String category;
 
     /** "Daily", "Weekly", or "One-time" */
@@ -43,7 +59,6 @@ public class Task {
 
     private LocalDate scheduledDate;
 
-    @Indexed
     @Field("status")
     @Builder.Default
     private String status = "PENDING";
@@ -52,14 +67,15 @@ public class Task {
 
     private Integer timeSpent;
 
-    @Indexed
     private LocalDateTime completedAt;
 
-    @Indexed
     @Field("priority")
     @Builder.Default
     private Priority priority = Priority.MEDIUM;
 
+    /** Numeric weight of priority (LOW = 0 … URGENT = 3), stored for index-backed sorting */
+    private Integer prioWeight;
+
     @CreatedDate
     private LocalDateTime createdAt;
 
@@ -13,8 +13,8 @@ import java.time.LocalDate;
 
 /**
  * Tracks whether a specific task was completed on a specific date.
- * Compound index on (taskId, date) ensures one record per task per day
- * and enables fast lookups for daily status queries.
+ * Unique index on (userId, taskId, date) ensures one record per task per day;
+ * (userId, date) serves the per-day and date-range queries of one user.
  */
 @Data
 @NoArgsConstructor
@@ -22,13 +22,17 @@ import java.time.LocalDate;
 @Builder
 @Document(collection = "taskStatus")
 @CompoundIndexes({
-    @CompoundIndex(name = "taskId_date_idx", def = "{'taskId': 1, 'date': 1}", unique = true)
+    @CompoundIndex(name = "userId_taskId_date_idx", def = "{'userId': 1, 'taskId': 1, 'date': 1}", unique = true),
+    @CompoundIndex(name = "userId_date_idx", def = "{'userId': 1, 'date': 1}")
 })
 public class TaskStatus {
 
     @Id
     private String id;
 
+    /** Owner of the task */
+    private String userId;
+
     private String taskId;
 
     private LocalDate date;
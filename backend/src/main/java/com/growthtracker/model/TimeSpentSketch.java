@@ -0,0 +1,48 @@
+package com.growthtracker.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fixed-size histogram of Task.timeSpent (minutes) for one scope.
+ * Scopes: "all", "category:<name>" and "week:<monday YYYY-MM-DD>", per user
+ * (the _id is the scope passed through UserScope.key).
+ *
+ * Buckets are keyed by their index (see TimeSpentHistogram) and updated with atomic
+ * $inc on completion, so sketches never need a rescan of completed tasks.
+ * Sketches of the same shape can be merged by adding bucket counts.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "timeSpentSketch")
+public class TimeSpentSketch {
+
+    /** User-scoped scope key used as the document ID */
+    @Id
+    private String id;
+
+    private String userId;
+
+    /** Bucket index → number of completions in that bucket */
+    @Builder.Default
+    private Map<String, Long> buckets = new HashMap<>();
+
+    private long count;
+
+    /** Sum of timeSpent over all recorded completions */
+    private long total;
+
+    /** Smallest and largest value ever added; removals do not shrink them (see TimeSpentHistogram) */
+    private Integer min;
+
+    private Integer max;
+}
@@ -0,0 +1,9 @@
+package com.growthtracker.repository;
+
+import com.growthtracker.model.StreakRecord;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StreakRecordRepository extends MongoRepository<StreakRecord, String> {
+}
@@ -4,11 +4,12 @@ import com.growthtracker.model.Task;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TaskRepository extends MongoRepository<Task, String> {
-    Optional<Task> findByTitle(String title);
-    boolean existsByTitle(String title);
-    boolean existsByTitleAndIdNot(String title, String id);
+    List<Task> findByUserId(String userId);
+    Optional<Task> findByUserIdAndId(String userId, String id);
+    boolean existsByUserIdAndId(String userId, String id);
 }
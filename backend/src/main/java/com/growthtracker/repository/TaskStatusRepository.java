@@ -1,6 +1,7 @@
 package com.growthtracker.repository;
 
 import com.growthtracker.model.TaskStatus;
+import org.springframework.data.domain.Range;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
@@ -11,15 +12,12 @@ import java.util.Optional;
 @Repository
 public interface TaskStatusRepository extends MongoRepository<TaskStatus, String> {
 
-    Optional<TaskStatus> findByTaskIdAndDate(String taskId, LocalDate date);
+    Optional<TaskStatus> findByUserIdAndTaskIdAndDate(String userId, String taskId, LocalDate date);
 
-    List<TaskStatus> findByDate(LocalDate date);
+    List<TaskStatus> findByUserIdAndDate(String userId, LocalDate date);
 
-    List<TaskStatus> findByTaskId(String taskId);
+    /** Range-bound variant; use Range.closed(from, to) to include both ends. */
+    List<TaskStatus> findByUserIdAndDateBetween(String userId, Range<LocalDate> range);
 
-    List<TaskStatus> findByTaskIdAndDateBetween(String taskId, LocalDate from, LocalDate to);
-
-    List<TaskStatus> findByDateBetween(LocalDate from, LocalDate to);
-
-    void deleteByTaskId(String taskId);
+    void deleteByUserIdAndTaskId(String userId, String taskId);
 }
@@ -0,0 +1,13 @@
+package com.growthtracker.repository;
+
+import com.growthtracker.model.TimeSpentSketch;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TimeSpentSketchRepository extends MongoRepository<TimeSpentSketch, String> {
+
+    List<TimeSpentSketch> findByUserIdAndIdStartingWith(String userId, String prefix);
+}
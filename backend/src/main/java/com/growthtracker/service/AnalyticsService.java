@@ -1,115 +1,156 @@
 package com.growthtracker.service;
 
+import com.growthtracker.dto.CategoryTrendDTO;
+import com.growthtracker.dto.RangeAnalyticsDTO;
 import com.growthtracker.dto.WeeklyAnalyticsDTO;
-import com.growthtracker.model.DailySummary;
 import com.growthtracker.model.Task;
-import com.growthtracker.model.TaskStatus;
-import com.growthtracker.repository.DailySummaryRepository;
-import com.growthtracker.repository.TaskRepository;
-import com.growthtracker.repository.TaskStatusRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
 import org.springframework.stereotype.Service;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Computes weekly analytics for the last 7 days.
+ * The weekly view is served from the incrementally maintained WeeklyAnalyticsView.
  *
  * KEY BEHAVIOR:
  * - Weekly frequency tasks are EXCLUDED from daily streak calculations
  *   but ARE included in weekly analytics (weakest/strongest task logic).
- * - longestStreak is read from persisted DB records.
+ * - longestStreak is read from the persisted StreakRecord document.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AnalyticsService {
 
-    private final TaskRepository taskRepository;
-    private final TaskStatusRepository taskStatusRepository;
-    private final DailySummaryRepository dailySummaryRepository;
+    private final TaskCatalog taskCatalog;
+    private final MongoTemplate mongoTemplate;
+    private final SummaryRecomputeQueue summaryRecomputeQueue;
+    private final WeeklyAnalyticsView weeklyAnalyticsView;
+    private final CompletionBitmapIndex completionBitmapIndex;
 
     private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ISO_LOCAL_DATE;
 
+    /** Longest range served by getRangeAnalytics */
+    private static final int MAX_RANGE_DAYS = 1096;
+
     public WeeklyAnalyticsDTO getWeeklyAnalytics() {
-        LocalDate today = LocalDate.now();
-        LocalDate sevenDaysAgo = today.minusDays(6);
+        // Summaries must reflect every status change made so far
+        summaryRecomputeQueue.awaitAll();
 
-        String fromStr = sevenDaysAgo.format(DATE_FMT);
-        String toStr = today.format(DATE_FMT);
-
-        // Summaries for last 7 days (for average and chart)
-        List<DailySummary> summaries = dailySummaryRepository
-            .findByDateBetweenOrderByDateAsc(fromStr, toStr);
-
-        // Build daily progress list — fill in 0 for missing days
-        List<WeeklyAnalyticsDTO.DailyProgress> dailyProgress = new ArrayList<>();
-        for (int i = 6; i >= 0; i--) {
-            LocalDate day = today.minusDays(i);
-            String dayStr = day.format(DATE_FMT);
-            double pct = summaries.stream()
-                .filter(s -> s.getDate().equals(dayStr))
-                .mapToDouble(DailySummary::getCompletionPercentage)
-                .findFirst()
-                .orElse(0.0);
-            dailyProgress.add(new WeeklyAnalyticsDTO.DailyProgress(dayStr, pct));
+        return weeklyAnalyticsView.get();
+    }
+
+    /**
+     * Analytics for any [from, to] range, answered from the per-task completion bitmaps.
+     *
+     * - Per-task counts, strongest and weakest task use completed TaskStatus days only,
+     *   like the weekly view.
+     * - Per-day percentages follow the DailySummary rules: One-time tasks count only on
+     *   their scheduled date and globally COMPLETED tasks count as done.
+     */
+    public RangeAnalyticsDTO getRangeAnalytics(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' cannot be after 'to'");
         }
+        long span = ChronoUnit.DAYS.between(from, to) + 1;
+        if (span > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Range cannot exceed " + MAX_RANGE_DAYS + " days");
+        }
+        int days = (int) span;
+        long fromDay = from.toEpochDay();
 
-        double weeklyAverage = dailyProgress.stream()
-            .mapToDouble(WeeklyAnalyticsDTO.DailyProgress::getCompletionPercentage)
-            .average()
-            .orElse(0.0);
-
-        // Current streak from today's summary (or most recent available)
-        int currentStreak = summaries.stream()
-            .filter(s -> s.getDate().equals(toStr))
-            .mapToInt(DailySummary::getStreak)
-            .findFirst()
-            .orElse(0);
-
-        // Longest streak from all DB records (not just last 7)
-        int longestStreak = dailySummaryRepository.findAllByOrderByDateDesc().stream()
-            .mapToInt(DailySummary::getLongestStreak)
-            .max()
-            .orElse(0);
-
-        // Task completion frequency for last 7 days (ALL tasks — Daily + Weekly)
-        List<Task> allTasks = taskRepository.findAll();
-        List<TaskStatus> weekStatuses = taskStatusRepository
-            .findByDateBetween(sevenDaysAgo, today);
-
-        // Count completions per task
-        Map<String, Long> completionCounts = weekStatuses.stream()
-            .filter(TaskStatus::isCompleted)
-            .collect(Collectors.groupingBy(TaskStatus::getTaskId, Collectors.counting()));
+        // Per-day counts from tasks that appear only on one day; the rest apply to every day
+        int[] scheduledPerDay = new int[days];
+        int[] completedPerDay = new int[days];
+        int everyDayTasks = 0;
+        int everyDayGloballyCompleted = 0;
 
-        String weakestTask = "N/A";
+        long totalCompletions = 0;
+        List<RangeAnalyticsDTO.TaskCompletion> taskCompletions = new ArrayList<>();
         String strongestTask = "N/A";
+        String weakestTask = "N/A";
+        int best = -1;
+        int worst = Integer.MAX_VALUE;
+
+        for (Task task : taskCatalog.all()) {
+            boolean globallyCompleted = "COMPLETED".equals(task.getStatus());
+            int activeDays;
+
+            if ("One-time".equalsIgnoreCase(task.getFrequency())) {
+                LocalDate scheduled = task.getScheduledDate();
+                if (scheduled == null || scheduled.isBefore(from) || scheduled.isAfter(to)) {
+                    continue;
+                }
+                int day = (int) (scheduled.toEpochDay() - fromDay);
+                scheduledPerDay[day]++;
+                if (globallyCompleted || completionBitmapIndex.isCompleted(task.getId(), scheduled)) {
+                    completedPerDay[day]++;
+                }
+                activeDays = 1;
+            } else {
+                everyDayTasks++;
+                if (globallyCompleted) {
+                    everyDayGloballyCompleted++;
+                } else {
+                    completionBitmapIndex.forEachCompletedDay(task.getId(), from, to,
+                        epochDay -> completedPerDay[(int) (epochDay - fromDay)]++);
+                }
+                activeDays = days;
+            }
+
+            int completedDays = completionBitmapIndex.completedDays(task.getId(), from, to);
+            totalCompletions += completedDays;
+            taskCompletions.add(RangeAnalyticsDTO.TaskCompletion.builder()
+                .taskId(task.getId())
+                .title(task.getTitle())
+                .category(task.getCategory())
+                .completedDays(completedDays)
+                .activeDays(activeDays)
+                .completionRate(Math.round(Math.min(completedDays, activeDays) * 10000.0 / activeDays) / 100.0)
+                .build());
 
-        if (!allTasks.isEmpty()) {
-            // Strongest: most completions
-            strongestTask = allTasks.stream()
-                .max(Comparator.comparingLong(t -> completionCounts.getOrDefault(t.getId(), 0L)))
-                .map(Task::getTitle)
-                .orElse("N/A");
-
-            // Weakest: fewest completions (could be 0)
-            weakestTask = allTasks.stream()
-                .min(Comparator.comparingLong(t -> completionCounts.getOrDefault(t.getId(), 0L)))
-                .map(Task::getTitle)
-                .orElse("N/A");
+            // First task wins ties, matching the weekly view
+            if (completedDays > best) {
+                best = completedDays;
+                strongestTask = task.getTitle();
+            }
+            if (completedDays < worst) {
+                worst = completedDays;
+                weakestTask = task.getTitle();
+            }
         }
 
-        return WeeklyAnalyticsDTO.builder()
-            .weeklyAverage(Math.round(weeklyAverage * 100.0) / 100.0)
-            .currentStreak(currentStreak)
-            .longestStreak(longestStreak)
-            .weakestTask(weakestTask)
+        List<WeeklyAnalyticsDTO.DailyProgress> dailyProgress = new ArrayList<>(days);
+        double sum = 0;
+        for (int i = 0; i < days; i++) {
+            int total = scheduledPerDay[i] + everyDayTasks;
+            int done = completedPerDay[i] + everyDayGloballyCompleted;
+            double pct = total == 0 ? 0.0 : Math.round(done * 10000.0 / total) / 100.0;
+            dailyProgress.add(new WeeklyAnalyticsDTO.DailyProgress(from.plusDays(i).format(DATE_FMT), pct));
+            sum += pct;
+        }
+
+        return RangeAnalyticsDTO.builder()
+            .from(from)
+            .to(to)
+            .days(days)
+            .totalCompletions(totalCompletions)
+            .averageCompletion(Math.round(sum / days * 100.0) / 100.0)
             .strongestTask(strongestTask)
+            .weakestTask(weakestTask)
+            .tasks(taskCompletions)
             .dailyProgress(dailyProgress)
             .build();
     }
@@ -117,26 +158,137 @@ public class AnalyticsService {
     /**
      * Returns completion counts per category over last 7 days.
      * Example: { "Health": 5, "Coding": 3, "Interview": 2 }
+     * Counted server-side by a single aggregation; no status documents are loaded.
      */
     public Map<String, Long> getCategoryAnalytics() {
         LocalDate today = LocalDate.now();
         LocalDate sevenDaysAgo = today.minusDays(6);
 
-        List<Task> allTasks = taskRepository.findAll();
-        List<TaskStatus> weekStatuses = taskStatusRepository
-            .findByDateBetween(sevenDaysAgo, today);
-
-        // Build taskId → category map
-        Map<String, String> taskCategoryMap = allTasks.stream()
-            .collect(Collectors.toMap(Task::getId, Task::getCategory));
-
-        // Count completed statuses per category
-        return weekStatuses.stream()
-            .filter(TaskStatus::isCompleted)
-            .filter(s -> taskCategoryMap.containsKey(s.getTaskId()))
-            .collect(Collectors.groupingBy(
-                s -> taskCategoryMap.get(s.getTaskId()),
-                Collectors.counting()
-            ));
+        Map<String, Long> counts = new HashMap<>();
+        for (Document row : aggregateCompletionsByCategory(sevenDaysAgo, today, null)) {
+            Document id = row.get("_id", Document.class);
+            counts.merge(categoryOf(id), ((Number) row.get("count")).longValue(), Long::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Per-category completion counts over [from, to], bucketed by day, week (Monday start)
+     * or month. Grouping and bucketing happen in a single Mongo aggregation
+     * ($lookup on tasks, $group by category and $dateTrunc bucket).
+     */
+    public CategoryTrendDTO getCategoryTrend(LocalDate from, LocalDate to, String granularity) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' cannot be after 'to'");
+        }
+        String unit = granularity == null ? "day" : granularity.toLowerCase();
+        if (!List.of("day", "week", "month").contains(unit)) {
+            throw new IllegalArgumentException("Granularity must be 'day', 'week' or 'month'");
+        }
+        if ("day".equals(unit) && ChronoUnit.DAYS.between(from, to) + 1 > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Daily buckets cannot span more than " + MAX_RANGE_DAYS + " days");
+        }
+
+        List<LocalDate> buckets = bucketsOf(from, to, unit);
+        return CategoryTrendDTO.builder()
+            .from(from)
+            .to(to)
+            .granularity(unit)
+            .buckets(buckets)
+            .categories(toSeries(buckets, aggregateCompletionsByCategory(from, to, unit)))
+            .build();
+    }
+
+    /** Start of every day, week (Monday) or month bucket that overlaps [from, to]. */
+    static List<LocalDate> bucketsOf(LocalDate from, LocalDate to, String unit) {
+        List<LocalDate> buckets = new ArrayList<>();
+        for (LocalDate b = bucketStart(from, unit); !b.isAfter(to); b = nextBucket(b, unit)) {
+            buckets.add(b);
+        }
+        return buckets;
+    }
+
+    /**
+     * Turns the (category, bucket) → count rows of the aggregation into one count per
+     * bucket for each category, sorted by category. Rows outside the buckets are ignored.
+     */
+    static Map<String, List<Long>> toSeries(List<LocalDate> buckets, List<Document> rows) {
+        Map<LocalDate, Integer> bucketIndex = new HashMap<>();
+        for (int i = 0; i < buckets.size(); i++) {
+            bucketIndex.put(buckets.get(i), i);
+        }
+
+        Map<String, List<Long>> series = new TreeMap<>();
+        for (Document row : rows) {
+            Document id = row.get("_id", Document.class);
+            LocalDate bucket = id.getDate("bucket").toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+            Integer index = bucketIndex.get(bucket);
+            if (index == null) {
+                continue;
+            }
+            List<Long> counts = series.computeIfAbsent(categoryOf(id),
+                c -> new ArrayList<>(Collections.nCopies(buckets.size(), 0L)));
+            counts.set(index, counts.get(index) + ((Number) row.get("count")).longValue());
+        }
+        return series;
+    }
+
+    /**
+     * Groups the current user's completed statuses in [from, to] by their task's current category and,
+     * when a unit is given, by the $dateTrunc bucket of the status date.
+     * Statuses whose task no longer exists are dropped by the $unwind.
+     */
+    private List<Document> aggregateCompletionsByCategory(LocalDate from, LocalDate to, String unit) {
+        Object fromDate = mongoTemplate.getConverter().convertToMongoType(from);
+        Object toDate = mongoTemplate.getConverter().convertToMongoType(to);
+
+        String userId = UserScope.currentUserId();
+        AggregationOperation match = context -> new Document("$match", new Document("userId", userId)
+            .append("completed", true)
+            .append("date", new Document("$gte", fromDate).append("$lte", toDate)));
+
+        AggregationOperation lookupTask = context -> new Document("$lookup", new Document()
+            .append("from", "tasks")
+            .append("let", new Document("tid", new Document("$convert", new Document("input", "$taskId")
+                .append("to", "objectId").append("onError", null).append("onNull", null))))
+            .append("pipeline", List.of(
+                new Document("$match", new Document("$expr", new Document("$eq", List.of("$_id", "$$tid")))),
+                new Document("$project", new Document("_id", 0).append("category", 1))))
+            .append("as", "task"));
+
+        Document groupId = new Document("category", "$task.category");
+        if (unit != null) {
+            groupId.append("bucket", new Document("$dateTrunc", new Document("date", "$date")
+                .append("unit", unit)
+                .append("timezone", ZoneId.systemDefault().getId())
+                .append("startOfWeek", "monday")));
+        }
+        AggregationOperation group = context -> new Document("$group", new Document("_id", groupId)
+            .append("count", new Document("$sum", 1)));
+
+        Aggregation aggregation = Aggregation.newAggregation(
+            match, lookupTask, Aggregation.unwind("task"), group);
+        return mongoTemplate.aggregate(aggregation, "taskStatus", Document.class).getMappedResults();
+    }
+
+    private static String categoryOf(Document groupId) {
+        String category = groupId.getString("category");
+        return category != null ? category : "Uncategorized";
+    }
+
+    private static LocalDate bucketStart(LocalDate date, String unit) {
+        return switch (unit) {
+            case "week" -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case "month" -> date.withDayOfMonth(1);
+            default -> date;
+        };
+    }
+
+    private static LocalDate nextBucket(LocalDate bucket, String unit) {
+        return switch (unit) {
+            case "week" -> bucket.plusWeeks(1);
+            case "month" -> bucket.plusMonths(1);
+            default -> bucket.plusDays(1);
+        };
     }
 }
@@ -0,0 +1,143 @@
+package com.growthtracker.service;
+
+import com.growthtracker.model.TaskStatus;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+/**
+ * In-memory per-task completion bitmaps: one bit per day, set when the task has a
+ * completed TaskStatus for that day.
+ *
+ * A user's bitmaps are loaded from taskStatus on their first access and kept current
+ * by TaskStatusService and TaskService, so range analytics are answered with bit
+ * operations instead of materializing TaskStatus documents. They live in a bounded
+ * UserCache and expire after user-cache.ttl, so completions written through other
+ * instances show up. All methods act for the current request's user (UserScope).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CompletionBitmapIndex {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${user-cache.max-users:1000}")
+    private int maxUsers;
+
+    @Value("${user-cache.ttl:5m}")
+    private Duration ttl;
+
+    private UserCache<UserBitmaps> bitmaps;
+
+    /** One user's bitmaps, taskId → bitmap. */
+    private static final class UserBitmaps {
+        final Map<String, DayBitmap> byTask = new HashMap<>();
+        final ReadWriteLock lock = new ReentrantReadWriteLock();
+    }
+
+    @PostConstruct
+    void start() {
+        bitmaps = new UserCache<>("Completion bitmaps", maxUsers, ttl, this::load);
+    }
+
+    private UserBitmaps load(String userId) {
+        Query completed = new Query(Criteria.where("userId").is(userId).and("completed").is(true));
+        completed.fields().include("taskId").include("date");
+
+        UserBitmaps loaded = new UserBitmaps();
+        long count = 0;
+        try (Stream<TaskStatus> statuses = mongoTemplate.stream(completed, TaskStatus.class)) {
+            for (TaskStatus status : (Iterable<TaskStatus>) statuses::iterator) {
+                loaded.byTask.computeIfAbsent(status.getTaskId(), id -> new DayBitmap())
+                    .set(status.getDate().toEpochDay(), true);
+                count++;
+            }
+        }
+        log.debug("Loaded completion bitmaps of {} for {} tasks from {} completed statuses",
+            userId, loaded.byTask.size(), count);
+        return loaded;
+    }
+
+    /** Applies a single TaskStatus write. */
+    public void onStatusChanged(String taskId, LocalDate date, boolean completed) {
+        bitmaps.update(UserScope.currentUserId(), user -> {
+            user.lock.writeLock().lock();
+            try {
+                DayBitmap bitmap = completed
+                    ? user.byTask.computeIfAbsent(taskId, id -> new DayBitmap())
+                    : user.byTask.get(taskId);
+                if (bitmap != null) {
+                    bitmap.set(date.toEpochDay(), completed);
+                }
+            } finally {
+                user.lock.writeLock().unlock();
+            }
+            return user;
+        });
+    }
+
+    /** Drops a deleted task's bitmap (its status history is deleted with it). */
+    public void onTaskDeleted(String taskId) {
+        bitmaps.update(UserScope.currentUserId(), user -> {
+            user.lock.writeLock().lock();
+            try {
+                user.byTask.remove(taskId);
+            } finally {
+                user.lock.writeLock().unlock();
+            }
+            return user;
+        });
+    }
+
+    public boolean isCompleted(String taskId, LocalDate date) {
+        UserBitmaps user = bitmaps.get(UserScope.currentUserId());
+        user.lock.readLock().lock();
+        try {
+            DayBitmap bitmap = user.byTask.get(taskId);
+            return bitmap != null && bitmap.get(date.toEpochDay());
+        } finally {
+            user.lock.readLock().unlock();
+        }
+    }
+
+    /** Number of days in [from, to] on which the task was completed. */
+    public int completedDays(String taskId, LocalDate from, LocalDate to) {
+        UserBitmaps user = bitmaps.get(UserScope.currentUserId());
+        user.lock.readLock().lock();
+        try {
+            DayBitmap bitmap = user.byTask.get(taskId);
+            return bitmap == null ? 0 : bitmap.count(from.toEpochDay(), to.toEpochDay());
+        } finally {
+            user.lock.readLock().unlock();
+        }
+    }
+
+    /** Calls the consumer with the epoch day of every completion in [from, to], ascending. */
+    public void forEachCompletedDay(String taskId, LocalDate from, LocalDate to, LongConsumer consumer) {
+        UserBitmaps user = bitmaps.get(UserScope.currentUserId());
+        user.lock.readLock().lock();
+        try {
+            DayBitmap bitmap = user.byTask.get(taskId);
+            if (bitmap != null) {
+                bitmap.forEach(from.toEpochDay(), to.toEpochDay(), consumer);
+            }
+        } finally {
+            user.lock.readLock().unlock();
+        }
+    }
+}
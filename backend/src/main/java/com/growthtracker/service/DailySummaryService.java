@@ -1,18 +1,31 @@
 package com.growthtracker.service;
 
 import com.growthtracker.model.DailySummary;
+import com.growthtracker.model.StreakRecord;
 import com.growthtracker.model.Task;
 import com.growthtracker.model.TaskStatus;
 import com.growthtracker.repository.DailySummaryRepository;
-import com.growthtracker.repository.TaskRepository;
 import com.growthtracker.repository.TaskStatusRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Computes and persists daily summary documents.
@@ -24,91 +37,283 @@ import java.util.List;
  *  4. completionPercentage < 70 → streak = 0
  *
  * longestStreak is updated in this document if current streak exceeds all previous values.
+ * The all-time maximum lives in a single StreakRecord document, raised with an atomic $max,
+ * so no summary history has to be scanned.
+ *
+ * Editing a past date propagates the new streak forward through the following days
+ * until a day's streak no longer changes.
  *
  * Only DAILY-frequency tasks are counted toward the streak calculation.
+ *
+ * Summaries, streaks and the streak record are per user; recompute takes the user
+ * explicitly because it runs on the recompute queue's threads.
+ *
+ * The queue recomputes different dates in parallel. Counting a date's tasks only reads
+ * that date, so it runs unlocked; the streak step reads yesterday's streak and
+ * propagation rewrites the following days, so that step runs one at a time per user
+ * under the user's lock (striped, so memory stays bounded).
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class DailySummaryService {
 
-    private final TaskRepository taskRepository;
+    private final TaskCatalog taskCatalog;
     private final TaskStatusRepository taskStatusRepository;
     private final DailySummaryRepository dailySummaryRepository;
+    private final MongoTemplate mongoTemplate;
+    private final WeeklyAnalyticsView weeklyAnalyticsView;
+
+    @Value("${summary.recompute.aggregation:true}")
+    private boolean useAggregation;
 
     private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ISO_LOCAL_DATE;
 
+    /** Number of later summaries loaded per round trip while propagating a streak change */
+    private static final int PROPAGATION_CHUNK = 31;
+
+    private static final int USER_LOCK_STRIPES = 64;
+
+    private final Object[] userLocks = newLocks();
+
+    private static Object[] newLocks() {
+        Object[] locks = new Object[USER_LOCK_STRIPES];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
+
     /**
-     * Recomputes the DailySummary for the given date and saves it to MongoDB.
+     * Recomputes the user's DailySummary for the given date and saves it to MongoDB.
      * Called after any task status change.
      */
-    public DailySummary recompute(LocalDate date) {
-        String dateStr = date.format(DATE_FMT);
+    public DailySummary recompute(String userId, LocalDate date) {
+        DayCounts counts = countStreakTasks(userId, date);
+        return withUserLock(userId, () -> applyStreak(userId, date, counts));
+    }
 
-        // Streak (70%) tasks for this date: Daily, Weekly + One-time tasks scheduled for today
-        List<Task> allTasks = taskRepository.findAll();
-        List<Task> streakTasks = allTasks.stream()
-            .filter(t -> !"One-time".equalsIgnoreCase(t.getFrequency()) || 
-                        (t.getScheduledDate() != null && date.equals(t.getScheduledDate())))
-            .toList();
+    /**
+     * Runs the action while holding the user's streak lock, excluding recomputes of that
+     * user's summaries for its duration.
+     */
+    <T> T withUserLock(String userId, Supplier<T> action) {
+        synchronized (userLocks[Math.floorMod(userId.hashCode(), USER_LOCK_STRIPES)]) {
+            return action.get();
+        }
+    }
 
-        int totalStreakTasks = streakTasks.size();
+    private DailySummary applyStreak(String userId, LocalDate date, DayCounts counts) {
+        String dateStr = date.format(DATE_FMT);
+
+        int totalStreakTasks = counts.total();
 
         // If no Daily/Today tasks exist, streak = 0
         if (totalStreakTasks == 0) {
-            return saveSummary(dateStr, 0, 0, 0.0, 0, resolveCurrentLongest(0));
+            DailySummary saved = saveSummary(userId, dateStr, 0, 0, 0.0, 0, resolveCurrentLongest(userId, 0));
+            propagateForward(userId, date, 0);
+            return saved;
+        }
+
+        long completedCount = counts.completed();
+        double completionPct = (double) completedCount / totalStreakTasks * 100.0;
+
+        // Determine streak from yesterday's summary
+        String yesterdayStr = date.minusDays(1).format(DATE_FMT);
+        int yesterdayStreak = dailySummaryRepository.findById(UserScope.key(userId, yesterdayStr))
+            .map(DailySummary::getStreak)
+            .orElse(0); // no yesterday record → streak resets
+
+        int streak = (completionPct >= 70.0) ? (yesterdayStreak + 1) : 0;
+        int longestStreak = resolveCurrentLongest(userId, streak);
+
+        DailySummary saved = saveSummary(userId, dateStr, totalStreakTasks, (int) completedCount, completionPct, streak, longestStreak);
+
+        // Later days build on this streak — bring them up to date if a past date was edited
+        propagateForward(userId, date, streak);
+        return saved;
+    }
+
+    /** Number of streak tasks for a date and how many of them are completed. */
+    record DayCounts(int total, int completed) {}
+
+    /**
+     * Counts streak tasks for the date, preferring the server-side aggregation.
+     * Falls back to the in-memory path if aggregation is disabled or fails.
+     */
+    private DayCounts countStreakTasks(String userId, LocalDate date) {
+        if (useAggregation) {
+            try {
+                return countWithAggregation(userId, date);
+            } catch (RuntimeException ex) {
+                log.warn("Summary aggregation failed for {}, falling back to in-memory count", date, ex);
+            }
+        }
+        return countInMemory(userId, date);
+    }
+
+    /**
+     * Single round trip: matches the streak tasks for the date (Daily, Weekly + One-time
+     * tasks scheduled for it), joins each with that day's completed TaskStatus and
+     * groups everything down to two integers.
+     */
+    DayCounts countWithAggregation(String userId, LocalDate date) {
+        Object mongoDate = mongoTemplate.getConverter().convertToMongoType(date);
+
+        Criteria streakTask = Criteria.where("userId").is(userId).orOperator(
+            Criteria.where("frequency").not().regex("^One-time$", "i"),
+            Criteria.where("scheduledDate").is(mongoDate));
+
+        AggregationOperation lookupToday = context -> new Document("$lookup", new Document()
+            .append("from", "taskStatus")
+            .append("let", new Document("tid", new Document("$toString", "$_id")))
+            .append("pipeline", List.of(
+                new Document("$match", new Document("userId", userId)
+                    .append("completed", true)
+                    .append("$expr", new Document("$and", List.of(
+                        new Document("$eq", List.of("$taskId", "$$tid")),
+                        new Document("$eq", List.of("$date", mongoDate)))))),
+                new Document("$limit", 1)))
+            .append("as", "doneToday"));
+
+        AggregationOperation count = context -> new Document("$group", new Document("_id", null)
+            .append("total", new Document("$sum", 1))
+            .append("completed", new Document("$sum", new Document("$cond", List.of(
+                new Document("$or", List.of(
+                    new Document("$eq", List.of("$status", "COMPLETED")),
+                    new Document("$gt", List.of(new Document("$size", "$doneToday"), 0)))),
+                1, 0)))));
+
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(streakTask), lookupToday, count);
+        Document result = mongoTemplate.aggregate(aggregation, "tasks", Document.class).getUniqueMappedResult();
+        if (result == null) {
+            return new DayCounts(0, 0);
+        }
+        return new DayCounts(result.getInteger("total", 0), result.getInteger("completed", 0));
+    }
+
+    /** Counts in Java from the task catalog and the day's statuses. */
+    DayCounts countInMemory(String userId, LocalDate date) {
+        // Streak (70%) tasks for this date: Daily, Weekly + One-time tasks scheduled for today
+        List<Task> streakTasks = taskCatalog.snapshot(userId).all().stream()
+            .filter(t -> countsOn(t, date))
+            .toList();
+        if (streakTasks.isEmpty()) {
+            return new DayCounts(0, 0);
         }
 
-        // Count completed streak tasks for today
         // A task is completed if it has a TaskStatus record marked true OR if its global status is COMPLETED
-        List<TaskStatus> todayStatuses = taskStatusRepository.findByDate(date);
-        java.util.Set<String> dailyCompletedIds = todayStatuses.stream()
+        java.util.Set<String> dailyCompletedIds = taskStatusRepository.findByUserIdAndDate(userId, date).stream()
             .filter(TaskStatus::isCompleted)
             .map(TaskStatus::getTaskId)
             .collect(java.util.stream.Collectors.toSet());
 
-        long completedCount = streakTasks.stream()
-            .filter(t -> dailyCompletedIds.contains(t.getId()) || "COMPLETED".equals(t.getStatus()))
+        int completed = (int) streakTasks.stream()
+            .filter(t -> isCompletedOn(t, dailyCompletedIds))
             .count();
+        return new DayCounts(streakTasks.size(), completed);
+    }
 
-        double completionPct = (double) completedCount / totalStreakTasks * 100.0;
+    /**
+     * Walks forward from the edited date and rewrites the streak of every following
+     * consecutive day whose value changes, using the completion percentages already
+     * stored in their summaries. Stops at the first day whose streak is unchanged
+     * (or at a gap, since a day without a yesterday summary starts from 0).
+     * All changed days are written back in a single bulk operation.
+     */
+    private void propagateForward(String userId, LocalDate date, int streak) {
+        List<DailySummary> changed = new ArrayList<>();
+        LocalDate prevDate = date;
+        int prevStreak = streak;
+        int maxStreak = 0;
+        String cursor = date.format(DATE_FMT);
 
-        // Determine streak from yesterday's summary
-        String yesterdayStr = date.minusDays(1).format(DATE_FMT);
-        int yesterdayStreak = dailySummaryRepository.findById(yesterdayStr)
-            .map(DailySummary::getStreak)
-            .orElse(0); // no yesterday record → streak resets
+        walk:
+        while (true) {
+            Query query = new Query(Criteria.where("userId").is(userId).and("date").gt(cursor))
+                .with(Sort.by(Sort.Direction.ASC, "date"))
+                .limit(PROPAGATION_CHUNK);
+            List<DailySummary> chunk = mongoTemplate.find(query, DailySummary.class);
 
-        int streak = (completionPct >= 70.0) ? (yesterdayStreak + 1) : 0;
-        int longestStreak = resolveCurrentLongest(streak);
+            for (DailySummary s : chunk) {
+                if (!s.getDate().equals(prevDate.plusDays(1).format(DATE_FMT))) {
+                    break walk;
+                }
+                int newStreak = (s.getCompletionPercentage() >= 70.0) ? (prevStreak + 1) : 0;
+                if (newStreak == s.getStreak()) {
+                    break walk;
+                }
+                s.setStreak(newStreak);
+                s.setLongestStreak(Math.max(s.getLongestStreak(), newStreak));
+                changed.add(s);
+                maxStreak = Math.max(maxStreak, newStreak);
+                prevDate = prevDate.plusDays(1);
+                prevStreak = newStreak;
+            }
+
+            if (chunk.size() < PROPAGATION_CHUNK) {
+                break;
+            }
+            cursor = chunk.get(chunk.size() - 1).getDate();
+        }
 
-        return saveSummary(dateStr, totalStreakTasks, (int) completedCount, completionPct, streak, longestStreak);
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DailySummary.class);
+        for (DailySummary s : changed) {
+            bulk.updateOne(new Query(Criteria.where("_id").is(s.getId())),
+                new Update().set("streak", s.getStreak()).set("longestStreak", s.getLongestStreak()));
+        }
+        bulk.execute();
+        changed.forEach(weeklyAnalyticsView::onSummarySaved);
+        resolveCurrentLongest(userId, maxStreak);
+        log.debug("Propagated streak change from {} to {} later day(s)", date, changed.size());
     }
 
     private boolean isStreakTask(List<Task> streakTasks, String taskId) {
         return streakTasks.stream().anyMatch(t -> t.getId().equals(taskId));
     }
 
+    /** Daily and Weekly tasks count every day; One-time tasks only on their scheduled date. */
+    static boolean countsOn(Task task, LocalDate date) {
+        return !"One-time".equalsIgnoreCase(task.getFrequency())
+            || (task.getScheduledDate() != null && date.equals(task.getScheduledDate()));
+    }
+
+    /** A task is completed if it has a TaskStatus marked true for the day OR its global status is COMPLETED. */
+    static boolean isCompletedOn(Task task, java.util.Set<String> dailyCompletedIds) {
+        return dailyCompletedIds.contains(task.getId()) || "COMPLETED".equals(task.getStatus());
+    }
+
     /**
-     * Finds the current longest streak across all recorded summaries, then
-     * returns whichever is bigger: the existing record or the new streak.
+     * Raises the persisted longest-streak record to at least the given streak
+     * and returns the resulting all-time longest, in a single round trip.
      */
-    private int resolveCurrentLongest(int currentStreak) {
-        return dailySummaryRepository.findAllByOrderByDateDesc().stream()
-            .mapToInt(DailySummary::getLongestStreak)
-            .max()
-            .orElse(0) < currentStreak
-            ? currentStreak
-            : dailySummaryRepository.findAllByOrderByDateDesc().stream()
-                .mapToInt(DailySummary::getLongestStreak)
-                .max()
-                .orElse(currentStreak);
+    private int resolveCurrentLongest(String userId, int currentStreak) {
+        StreakRecord record = mongoTemplate.findAndModify(
+            new Query(Criteria.where("_id").is(UserScope.key(userId, StreakRecord.GLOBAL_ID))),
+            new Update().max("longestStreak", currentStreak).setOnInsert("userId", userId),
+            FindAndModifyOptions.options().upsert(true).returnNew(true),
+            StreakRecord.class);
+        return record != null ? record.getLongestStreak() : currentStreak;
     }
 
-    private DailySummary saveSummary(String dateStr, int total, int completed,
+    private DailySummary saveSummary(String userId, String dateStr, int total, int completed,
                                       double pct, int streak, int longestStreak) {
-        DailySummary summary = DailySummary.builder()
-            .id(dateStr)
+        DailySummary saved = dailySummaryRepository.save(
+            buildSummary(userId, dateStr, total, completed, pct, streak, longestStreak));
+        weeklyAnalyticsView.onSummarySaved(saved);
+        return saved;
+    }
+
+    static DailySummary buildSummary(String userId, String dateStr, int total, int completed,
+                                     double pct, int streak, int longestStreak) {
+        return DailySummary.builder()
+            .id(UserScope.key(userId, dateStr))
+            .userId(userId)
             .date(dateStr)
             .totalTasks(total)
             .completedTasks(completed)
@@ -116,14 +321,14 @@ public class DailySummaryService {
             .streak(streak)
             .longestStreak(longestStreak)
             .build();
-        return dailySummaryRepository.save(summary);
     }
 
     public DailySummary getSummary(LocalDate date) {
+        String userId = UserScope.currentUserId();
         String dateStr = date.format(DATE_FMT);
-        return dailySummaryRepository.findById(dateStr).orElseGet(() ->
+        return dailySummaryRepository.findById(UserScope.key(userId, dateStr)).orElseGet(() ->
             DailySummary.builder()
-                .id(dateStr).date(dateStr)
+                .id(UserScope.key(userId, dateStr)).userId(userId).date(dateStr)
                 .totalTasks(0).completedTasks(0)
                 .completionPercentage(0).streak(0).longestStreak(0)
                 .build()
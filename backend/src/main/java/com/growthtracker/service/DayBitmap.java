@@ -0,0 +1,88 @@
+package com.growthtracker.service;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Growable bitmap with one bit per calendar day, addressed by epoch day.
+ * Words are allocated only for the span of days that have ever been set.
+ * Not thread-safe; callers guard access.
+ */
+final class DayBitmap {
+
+    /** Word index (epochDay / 64) of words[0] */
+    private long firstWord;
+    private long[] words = new long[0];
+
+    void set(long epochDay, boolean value) {
+        long word = Math.floorDiv(epochDay, 64);
+        long bit = 1L << Math.floorMod(epochDay, 64);
+        if (!value) {
+            if (inRange(word)) {
+                words[(int) (word - firstWord)] &= ~bit;
+            }
+            return;
+        }
+        ensure(word);
+        words[(int) (word - firstWord)] |= bit;
+    }
+
+    boolean get(long epochDay) {
+        long word = Math.floorDiv(epochDay, 64);
+        return inRange(word) && (words[(int) (word - firstWord)] & (1L << Math.floorMod(epochDay, 64))) != 0;
+    }
+
+    /** Number of set days in [fromDay, toDay]. */
+    int count(long fromDay, long toDay) {
+        int total = 0;
+        long fromWord = Math.floorDiv(fromDay, 64);
+        long toWord = Math.floorDiv(toDay, 64);
+        long start = Math.max(fromWord, firstWord);
+        long end = Math.min(toWord, firstWord + words.length - 1);
+        for (long w = start; w <= end; w++) {
+            total += Long.bitCount(words[(int) (w - firstWord)] & mask(w, fromDay, toDay, fromWord, toWord));
+        }
+        return total;
+    }
+
+    /** Calls the consumer with every set epoch day in [fromDay, toDay], ascending. */
+    void forEach(long fromDay, long toDay, LongConsumer consumer) {
+        long fromWord = Math.floorDiv(fromDay, 64);
+        long toWord = Math.floorDiv(toDay, 64);
+        long start = Math.max(fromWord, firstWord);
+        long end = Math.min(toWord, firstWord + words.length - 1);
+        for (long w = start; w <= end; w++) {
+            long bits = words[(int) (w - firstWord)] & mask(w, fromDay, toDay, fromWord, toWord);
+            while (bits != 0) {
+                consumer.accept(w * 64 + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    private static long mask(long word, long fromDay, long toDay, long fromWord, long toWord) {
+        int low = word == fromWord ? (int) Math.floorMod(fromDay, 64) : 0;
+        int high = word == toWord ? (int) Math.floorMod(toDay, 64) : 63;
+        return (-1L << low) & (-1L >>> (63 - high));
+    }
+
+    private boolean inRange(long word) {
+        return word >= firstWord && word < firstWord + words.length;
+    }
+
+    private void ensure(long word) {
+        if (words.length == 0) {
+            firstWord = word;
+            words = new long[1];
+        } else if (word < firstWord) {
+            int shift = (int) (firstWord - word);
+            long[] grown = new long[words.length + shift];
+            System.arraycopy(words, 0, grown, shift, words.length);
+            words = grown;
+            firstWord = word;
+        } else if (word >= firstWord + words.length) {
+            int needed = (int) (word - firstWord + 1);
+            words = Arrays.copyOf(words, Math.max(needed, words.length * 2));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.growthtracker.service;
+
+import com.growthtracker.dto.HeatmapDTO;
+import com.growthtracker.exception.ResourceNotFoundException;
+import com.growthtracker.model.DailySummary;
+import com.growthtracker.model.Task;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Builds GitHub-style contribution heatmaps in a compact encoding.
+ *
+ * - Overall heatmap: each day's DailySummary.completionPercentage quantized to 0–4
+ *   (0 = nothing, 1 = up to 25%, 2 = up to 50%, 3 = up to 75%, 4 = above 75%).
+ *   Only date and percentage are read, through the date index, for the requested range.
+ * - Per-task heatmap: 0/1 per day, read from the in-memory completion bitmaps and
+ *   counted with the same rules as the daily summaries: a One-time task only shows on
+ *   its scheduled date, and a task whose global status is COMPLETED shows as done on
+ *   every day it counts.
+ *
+ * Cost depends on the requested range, not on how much history exists.
+ */
+@Service
+@RequiredArgsConstructor
+public class HeatmapService {
+
+    private final MongoTemplate mongoTemplate;
+    private final TaskCatalog taskCatalog;
+    private final CompletionBitmapIndex completionBitmapIndex;
+    private final SummaryRecomputeQueue summaryRecomputeQueue;
+
+    private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ISO_LOCAL_DATE;
+    private static final int MAX_RANGE_DAYS = 1096;
+    private static final int SUMMARY_LEVELS = 4;
+
+    public HeatmapDTO getHeatmap(LocalDate from, LocalDate to, String encoding) {
+        int days = validate(from, to, encoding);
+
+        // Summaries must reflect every status change made so far
+        summaryRecomputeQueue.awaitAll();
+
+        Query query = new Query(Criteria.where("userId").is(UserScope.currentUserId())
+            .and("date").gte(from.format(DATE_FMT)).lte(to.format(DATE_FMT)));
+        query.fields().include("date").include("completionPercentage");
+
+        byte[] levels = new byte[days];
+        for (DailySummary summary : mongoTemplate.find(query, DailySummary.class)) {
+            int day = (int) ChronoUnit.DAYS.between(from, LocalDate.parse(summary.getDate(), DATE_FMT));
+            levels[day] = quantize(summary.getCompletionPercentage());
+        }
+        return encode(from, to, null, SUMMARY_LEVELS, levels, encoding);
+    }
+
+    public HeatmapDTO getTaskHeatmap(String taskId, LocalDate from, LocalDate to, String encoding) {
+        int days = validate(from, to, encoding);
+        Task task = taskCatalog.findById(taskId)
+            .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId));
+
+        byte[] levels = new byte[days];
+        long fromDay = from.toEpochDay();
+        if ("COMPLETED".equals(task.getStatus())) {
+            Arrays.fill(levels, (byte) 1);
+        } else {
+            completionBitmapIndex.forEachCompletedDay(taskId, from, to,
+                epochDay -> levels[(int) (epochDay - fromDay)] = 1);
+        }
+        for (int day = 0; day < days; day++) {
+            if (!DailySummaryService.countsOn(task, from.plusDays(day))) {
+                levels[day] = 0;
+            }
+        }
+        return encode(from, to, taskId, 1, levels, encoding);
+    }
+
+    /** 0 = nothing, then one level per quarter of completion. */
+    static byte quantize(double pct) {
+        if (pct <= 0) {
+            return 0;
+        }
+        return (byte) Math.min(SUMMARY_LEVELS, (int) Math.ceil(pct / 25.0));
+    }
+
+    private int validate(LocalDate from, LocalDate to, String encoding) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' cannot be after 'to'");
+        }
+        long span = ChronoUnit.DAYS.between(from, to) + 1;
+        if (span > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Range cannot exceed " + MAX_RANGE_DAYS + " days");
+        }
+        if (!"packed".equalsIgnoreCase(encoding) && !"rle".equalsIgnoreCase(encoding)) {
+            throw new IllegalArgumentException("Encoding must be 'packed' or 'rle'");
+        }
+        return (int) span;
+    }
+
+    static HeatmapDTO encode(LocalDate from, LocalDate to, String taskId,
+                              int maxLevel, byte[] levels, String encoding) {
+        HeatmapDTO.HeatmapDTOBuilder builder = HeatmapDTO.builder()
+            .from(from)
+            .to(to)
+            .days(levels.length)
+            .taskId(taskId)
+            .maxLevel(maxLevel);
+
+        if ("rle".equalsIgnoreCase(encoding)) {
+            List<Integer> runs = new ArrayList<>();
+            int i = 0;
+            while (i < levels.length) {
+                int start = i;
+                while (i < levels.length && levels[i] == levels[start]) {
+                    i++;
+                }
+                runs.add((int) levels[start]);
+                runs.add(i - start);
+            }
+            return builder.encoding("rle").runs(runs).build();
+        }
+
+        byte[] packed = new byte[(levels.length + 1) / 2];
+        for (int i = 0; i < levels.length; i++) {
+            packed[i >> 1] |= (byte) (levels[i] << ((i & 1) * 4));
+        }
+        return builder.encoding("packed").data(Base64.getEncoder().encodeToString(packed)).build();
+    }
+}
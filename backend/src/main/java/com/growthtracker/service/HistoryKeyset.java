@@ -0,0 +1,138 @@
+package com.growthtracker.service;
+
+import com.growthtracker.model.Task;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset (seek) pagination for task history.
+ *
+ * Each history sort is a list of keys ending in _id, so the order is total. A cursor
+ * is the sort name plus the last row's key values, as Base64url extended JSON; the
+ * next page is the rows strictly after that position, which Mongo finds with an
+ * index seek instead of skipping the earlier pages.
+ *
+ * Mongo sorts null (and missing) below every value, which the "after" predicate
+ * mirrors so rows without e.g. timeSpent are not lost at the end of a DESC sort.
+ *
+ * Task ids are Strings in Java but ObjectIds in the collection, and a String never
+ * compares equal to or below an ObjectId, so the _id value is carried as an ObjectId.
+ */
+enum HistoryKeyset {
+
+    LATEST(key("completedAt", Sort.Direction.DESC, Task::getCompletedAt),
+        key("_id", Sort.Direction.DESC, Task::getId)),
+    OLDEST(key("completedAt", Sort.Direction.ASC, Task::getCompletedAt),
+        key("_id", Sort.Direction.ASC, Task::getId)),
+    TIME_DESC(key("timeSpent", Sort.Direction.DESC, Task::getTimeSpent),
+        key("_id", Sort.Direction.DESC, Task::getId)),
+    PRIORITY(key("prioWeight", Sort.Direction.DESC, Task::getPrioWeight),
+        key("completedAt", Sort.Direction.DESC, Task::getCompletedAt),
+        key("_id", Sort.Direction.DESC, Task::getId));
+
+    private record Key(String field, Sort.Direction direction, Function<Task, Object> value) {
+
+        boolean isId() {
+            return "_id".equals(field);
+        }
+    }
+
+    private static Key key(String field, Sort.Direction direction, Function<Task, Object> value) {
+        return new Key(field, direction, value);
+    }
+
+    private final List<Key> keys;
+
+    HistoryKeyset(Key... keys) {
+        this.keys = List.of(keys);
+    }
+
+    /** Maps the request's sortBy the same way the offset path does; unknown values mean LATEST. */
+    static HistoryKeyset of(String sortBy) {
+        if ("oldest".equalsIgnoreCase(sortBy)) {
+            return OLDEST;
+        }
+        if ("time_desc".equalsIgnoreCase(sortBy)) {
+            return TIME_DESC;
+        }
+        if ("priority".equalsIgnoreCase(sortBy)) {
+            return PRIORITY;
+        }
+        return LATEST;
+    }
+
+    Sort sort() {
+        return Sort.by(keys.stream()
+            .map(k -> new Sort.Order(k.direction(), k.field()))
+            .toList());
+    }
+
+    /** Opaque cursor pointing just after the given row. */
+    String encode(Task last, MongoConverter converter) {
+        List<Object> values = new ArrayList<>(keys.size());
+        for (Key k : keys) {
+            Object value = k.value().apply(last);
+            values.add(k.isId() ? new ObjectId((String) value) : converter.convertToMongoType(value));
+        }
+        String json = new Document("s", name()).append("v", values).toJson();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Criteria matching the rows that sort strictly after the cursor position. */
+    Criteria after(String cursor) {
+        Document decoded;
+        try {
+            decoded = Document.parse(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        List<Object> values = decoded.getList("v", Object.class);
+        if (!name().equals(decoded.getString("s")) || values == null || values.size() != keys.size()) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            if (keys.get(i).isId() && !(values.get(i) instanceof ObjectId)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        // (k1 after v1) OR (k1 = v1 AND k2 after v2) OR ...
+        List<Criteria> branches = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            Criteria afterKey = afterValue(keys.get(i), values.get(i));
+            if (afterKey == null) {
+                continue;
+            }
+            List<Criteria> parts = new ArrayList<>();
+            for (int j = 0; j < i; j++) {
+                parts.add(Criteria.where(keys.get(j).field()).is(values.get(j)));
+            }
+            parts.add(afterKey);
+            branches.add(parts.size() == 1 ? afterKey : new Criteria().andOperator(parts));
+        }
+        return branches.isEmpty()
+            // Nothing sorts after the cursor
+            ? Criteria.where("_id").exists(false)
+            : new Criteria().orOperator(branches);
+    }
+
+    private static Criteria afterValue(Key k, Object value) {
+        if (k.direction() == Sort.Direction.DESC) {
+            return value == null
+                ? null
+                : new Criteria().orOperator(Criteria.where(k.field()).lt(value), Criteria.where(k.field()).is(null));
+        }
+        return value == null
+            ? Criteria.where(k.field()).ne(null)
+            : Criteria.where(k.field()).gt(value);
+    }
+}
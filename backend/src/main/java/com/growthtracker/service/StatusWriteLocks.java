@@ -0,0 +1,61 @@
+package com.growthtracker.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped locks over (userId, taskId, date), held across a status write and the
+ * projection update that follows it, so the in-memory projections see the writes to
+ * one pair in the order Mongo applied them.
+ *
+ * A fixed number of stripes keeps memory bounded; unrelated pairs that share a stripe
+ * only wait for each other's single write. Several stripes are always taken in
+ * ascending order, so batch writes cannot deadlock with each other.
+ */
+final class StatusWriteLocks {
+
+    private static final int STRIPES = 256;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    StatusWriteLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /** Key of one (taskId, date) pair of a user. */
+    record Key(String userId, String taskId, LocalDate date) {
+
+        int stripe() {
+            return Math.floorMod(Objects.hash(userId, taskId, date), STRIPES);
+        }
+    }
+
+    <T> T withLock(Key key, Supplier<T> action) {
+        return withLocks(List.of(key), action);
+    }
+
+    <T> T withLocks(Collection<Key> keys, Supplier<T> action) {
+        TreeSet<Integer> held = new TreeSet<>();
+        keys.forEach(key -> held.add(key.stripe()));
+        List<Integer> acquired = new ArrayList<>(held.size());
+        try {
+            for (int stripe : held) {
+                stripes[stripe].lock();
+                acquired.add(stripe);
+            }
+            return action.get();
+        } finally {
+            for (int i = acquired.size() - 1; i >= 0; i--) {
+                stripes[acquired.get(i)].unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.growthtracker.service;
+
+import com.growthtracker.model.Task;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalInt;
+
+/**
+ * Everything the suggestion rules may look at, captured once per evaluation:
+ * the task catalog, a 7-day completion bitmap per task and the last 7 days of
+ * daily summaries. Built from the in-memory catalog and weekly view, so rules
+ * never query Mongo themselves.
+ */
+public final class SuggestionContext {
+
+    /** Days covered by the bitmaps and summaries, ending today */
+    public static final int WINDOW_DAYS = 7;
+
+    private final LocalDate today;
+    private final TaskCatalog.Snapshot catalog;
+    private final Map<String, Integer> completionMasks;
+    private final double[] dailyPct;
+    private final int[] dailyStreak;
+    private final boolean[] hasSummary;
+
+    SuggestionContext(TaskCatalog.Snapshot catalog, WeeklyAnalyticsView.Window window) {
+        this.today = window.anchor();
+        this.catalog = catalog;
+        this.completionMasks = window.completionMasks();
+        this.dailyPct = window.dailyPct();
+        this.dailyStreak = window.dailyStreak();
+        this.hasSummary = window.hasSummary();
+    }
+
+    public LocalDate today() {
+        return today;
+    }
+
+    public List<Task> tasks() {
+        return catalog.all();
+    }
+
+    /** Tasks whose title or category contains the keyword, case-insensitively. */
+    public List<Task> tasksMatching(String keyword) {
+        String needle = keyword.toLowerCase(Locale.ROOT);
+        return catalog.all().stream()
+            .filter(t -> contains(t.getTitle(), needle) || contains(t.getCategory(), needle))
+            .toList();
+    }
+
+    private static boolean contains(String value, String needle) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(needle);
+    }
+
+    /** Completion bitmap of the task: bit i set when completed on today - (6 - i). */
+    public int completionMask(String taskId) {
+        return completionMasks.getOrDefault(taskId, 0);
+    }
+
+    /** Days in the window the task was completed. */
+    public int completions(String taskId) {
+        return Integer.bitCount(completionMask(taskId));
+    }
+
+    /** Whether the task was completed on the given number of days before today (0 = today). */
+    public boolean completedDaysAgo(String taskId, int daysAgo) {
+        return daysAgo >= 0 && daysAgo < WINDOW_DAYS
+            && (completionMask(taskId) & (1 << (WINDOW_DAYS - 1 - daysAgo))) != 0;
+    }
+
+    /** Average completion percentage over the days that have a summary, or 0 if none do. */
+    public double weeklyAverage() {
+        double sum = 0;
+        int days = 0;
+        for (int i = 0; i < WINDOW_DAYS; i++) {
+            if (hasSummary[i]) {
+                sum += dailyPct[i];
+                days++;
+            }
+        }
+        return days == 0 ? 0.0 : sum / days;
+    }
+
+    /** Streak stored for the given number of days before today, or empty without a summary. */
+    public OptionalInt streakDaysAgo(int daysAgo) {
+        int i = WINDOW_DAYS - 1 - daysAgo;
+        return (i >= 0 && i < WINDOW_DAYS && hasSummary[i])
+            ? OptionalInt.of(dailyStreak[i])
+            : OptionalInt.empty();
+    }
+}
@@ -0,0 +1,13 @@
+package com.growthtracker.service;
+
+import java.util.Optional;
+
+/**
+ * One suggestion rule. Rules are Spring beans evaluated in {@code @Order} order;
+ * the first one that returns a message wins.
+ */
+@FunctionalInterface
+public interface SuggestionRule {
+
+    Optional<String> evaluate(SuggestionContext context);
+}
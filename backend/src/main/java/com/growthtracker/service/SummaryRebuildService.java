@@ -0,0 +1,234 @@
+package com.growthtracker.service;
+
+import com.growthtracker.dto.SummaryRebuildDTO;
+import com.growthtracker.exception.RebuildInProgressException;
+import com.growthtracker.model.DailySummary;
+import com.growthtracker.model.StreakRecord;
+import com.growthtracker.model.Task;
+import com.growthtracker.model.TaskStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Regenerates every dailySummary document of the current user in a single pass over
+ * their taskStatus records.
+ *
+ * Tasks come from the in-memory catalog. Statuses are streamed sorted by date, so only
+ * one day's completions are held in memory at a time. Summaries and streaks are computed with the same rules as
+ * DailySummaryService.recompute and written with unordered bulk upserts.
+ * Dates that already have a summary but no status records are rebuilt as well.
+ *
+ * The rebuild holds the user's streak lock (DailySummaryService.withUserLock), so a
+ * status change made meanwhile is recomputed and propagated after the rebuild instead
+ * of interleaving with its bulk writes or its StreakRecord overwrite.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SummaryRebuildService {
+
+    private final TaskCatalog taskCatalog;
+    private final DailySummaryService dailySummaryService;
+    private final MongoTemplate mongoTemplate;
+    private final SummaryRecomputeQueue summaryRecomputeQueue;
+    private final WeeklyAnalyticsView weeklyAnalyticsView;
+
+    private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ISO_LOCAL_DATE;
+    private static final int BATCH_SIZE = 500;
+    private static final int PROGRESS_EVERY_DAYS = 365;
+
+    /** Users with a rebuild in progress */
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    /** userId → progress of the running rebuild, or the result of the last one */
+    private final Map<String, SummaryRebuildDTO> progress = new ConcurrentHashMap<>();
+
+    /** Returns the current user's running rebuild progress, or the result of their last one. */
+    public SummaryRebuildDTO getProgress() {
+        return progress.getOrDefault(UserScope.currentUserId(), SummaryRebuildDTO.builder().build());
+    }
+
+    /**
+     * Rebuilds all daily summaries and the longest-streak record of the current user.
+     * Only one rebuild per user can run at a time; a second one gets a 409.
+     */
+    public SummaryRebuildDTO rebuildAll() {
+        String userId = UserScope.currentUserId();
+        if (!running.add(userId)) {
+            throw new RebuildInProgressException();
+        }
+        try {
+            // Let queued recomputes land first; they need the lock taken below
+            summaryRecomputeQueue.awaitAll();
+            SummaryRebuildDTO result = dailySummaryService.withUserLock(userId,
+                () -> new RebuildRun(userId, taskCatalog.snapshot(userId).all()).execute());
+            weeklyAnalyticsView.invalidate(userId);
+            return result;
+        } finally {
+            running.remove(userId);
+        }
+    }
+
+    /** State of one rebuild pass. */
+    private final class RebuildRun {
+
+        private final String userId;
+        private final List<Task> tasks;
+        private final TreeSet<String> summaryOnlyDates = new TreeSet<>();
+        private final long startNanos = System.nanoTime();
+
+        private BulkOperations bulk;
+        private int batched;
+        private long daysProcessed;
+        private long statusesScanned;
+        private LocalDate prevDate;
+        private int prevStreak;
+        private int longestStreak;
+
+        RebuildRun(String userId, List<Task> tasks) {
+            this.userId = userId;
+            this.tasks = tasks;
+        }
+
+        SummaryRebuildDTO execute() {
+            log.info("Starting full summary rebuild of {} over {} tasks", userId, tasks.size());
+            loadExistingSummaryDates();
+            publishProgress(true);
+
+            Query byDate = new Query(Criteria.where("userId").is(userId)).with(Sort.by(Sort.Direction.ASC, "date"));
+            try (Stream<TaskStatus> statuses = mongoTemplate.stream(byDate, TaskStatus.class)) {
+                LocalDate current = null;
+                Set<String> completedIds = new HashSet<>();
+                for (TaskStatus status : (Iterable<TaskStatus>) statuses::iterator) {
+                    statusesScanned++;
+                    if (current != null && !current.equals(status.getDate())) {
+                        emitThrough(current, completedIds);
+                        completedIds.clear();
+                    }
+                    current = status.getDate();
+                    if (status.isCompleted()) {
+                        completedIds.add(status.getTaskId());
+                    }
+                }
+                if (current != null) {
+                    emitThrough(current, completedIds);
+                }
+            }
+
+            // Summaries dated after the last status record
+            while (!summaryOnlyDates.isEmpty()) {
+                emitDay(LocalDate.parse(summaryOnlyDates.pollFirst(), DATE_FMT), Set.of());
+            }
+            flushBatch();
+
+            mongoTemplate.save(StreakRecord.builder()
+                .id(UserScope.key(userId, StreakRecord.GLOBAL_ID))
+                .userId(userId)
+                .longestStreak(longestStreak)
+                .build());
+
+            SummaryRebuildDTO result = publishProgress(false);
+            log.info("Summary rebuild finished: {} days from {} statuses in {} ms ({} days/sec)",
+                result.getDaysProcessed(), result.getStatusesScanned(),
+                result.getElapsedMs(), result.getDaysPerSecond());
+            return result;
+        }
+
+        private void loadExistingSummaryDates() {
+            Query dates = new Query(Criteria.where("userId").is(userId));
+            dates.fields().include("date");
+            try (Stream<DailySummary> existing = mongoTemplate.stream(dates, DailySummary.class)) {
+                existing.forEach(s -> summaryOnlyDates.add(s.getDate()));
+            }
+        }
+
+        /** Emits any summary-only dates before the given date, then the date itself. */
+        private void emitThrough(LocalDate date, Set<String> completedIds) {
+            String dateStr = date.format(DATE_FMT);
+            while (!summaryOnlyDates.isEmpty() && summaryOnlyDates.first().compareTo(dateStr) < 0) {
+                emitDay(LocalDate.parse(summaryOnlyDates.pollFirst(), DATE_FMT), Set.of());
+            }
+            summaryOnlyDates.remove(dateStr);
+            emitDay(date, completedIds);
+        }
+
+        private void emitDay(LocalDate date, Set<String> completedIds) {
+            int total = 0;
+            int completed = 0;
+            for (Task task : tasks) {
+                if (DailySummaryService.countsOn(task, date)) {
+                    total++;
+                    if (DailySummaryService.isCompletedOn(task, completedIds)) {
+                        completed++;
+                    }
+                }
+            }
+
+            double pct = total == 0 ? 0.0 : (double) completed / total * 100.0;
+            int yesterdayStreak = (prevDate != null && prevDate.plusDays(1).equals(date)) ? prevStreak : 0;
+            int streak = (total > 0 && pct >= 70.0) ? (yesterdayStreak + 1) : 0;
+            longestStreak = Math.max(longestStreak, streak);
+
+            DailySummary summary = DailySummaryService.buildSummary(
+                userId, date.format(DATE_FMT), total, completed, pct, streak, longestStreak);
+            if (bulk == null) {
+                bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DailySummary.class);
+            }
+            bulk.replaceOne(new Query(Criteria.where("_id").is(summary.getId())), summary,
+                FindAndReplaceOptions.options().upsert());
+            if (++batched >= BATCH_SIZE) {
+                flushBatch();
+            }
+
+            prevDate = date;
+            prevStreak = streak;
+            daysProcessed++;
+            if (daysProcessed % PROGRESS_EVERY_DAYS == 0) {
+                SummaryRebuildDTO snapshot = publishProgress(true);
+                log.info("Summary rebuild progress: {} days through {} ({} days/sec)",
+                    snapshot.getDaysProcessed(), snapshot.getLastDate(), snapshot.getDaysPerSecond());
+            }
+        }
+
+        private void flushBatch() {
+            if (bulk != null && batched > 0) {
+                bulk.execute();
+            }
+            bulk = null;
+            batched = 0;
+        }
+
+        private SummaryRebuildDTO publishProgress(boolean stillRunning) {
+            long elapsedMs = (System.nanoTime() - startNanos) / 1_000_000;
+            double daysPerSecond = elapsedMs == 0 ? 0.0 : daysProcessed * 1000.0 / elapsedMs;
+            SummaryRebuildDTO snapshot = SummaryRebuildDTO.builder()
+                .running(stillRunning)
+                .daysProcessed(daysProcessed)
+                .statusesScanned(statusesScanned)
+                .lastDate(prevDate != null ? prevDate.format(DATE_FMT) : null)
+                .longestStreak(longestStreak)
+                .elapsedMs(elapsedMs)
+                .daysPerSecond(Math.round(daysPerSecond * 100.0) / 100.0)
+                .build();
+            progress.put(userId, snapshot);
+            return snapshot;
+        }
+    }
+}
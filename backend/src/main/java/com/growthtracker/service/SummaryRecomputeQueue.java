@@ -0,0 +1,197 @@
+package com.growthtracker.service;
+
+import com.growthtracker.model.DailySummary;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous, coalescing recompute stage for daily summaries.
+ *
+ * BEHAVIOR:
+ * - Work is tracked per (user, date); the date-taking methods act for the current
+ *   request's user (UserScope) and hand the user id to the worker explicitly.
+ * - markDirty(date) schedules a recompute after a short window; further signals for
+ *   the same date inside that window are merged into the same recompute.
+ * - Work for one date is serialized: a signal arriving while that date is being
+ *   recomputed schedules exactly one follow-up run.
+ * - Different dates are recomputed in parallel on a small thread pool. Counting a
+ *   date's tasks runs fully in parallel; the streak step that follows is serialized per
+ *   user by DailySummaryService, since it rewrites the streaks of the days after it.
+ * - flush(date) / await(date) run any pending work immediately and wait for it,
+ *   so readers can get read-your-writes.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SummaryRecomputeQueue {
+
+    private final DailySummaryService dailySummaryService;
+
+    @Value("${summary.recompute.window-ms:150}")
+    private long windowMs;
+
+    @Value("${summary.recompute.threads:4}")
+    private int threads;
+
+    private ScheduledExecutorService executor;
+
+    private final Map<SlotKey, DateSlot> slots = new ConcurrentHashMap<>();
+
+    /** One user's date. */
+    private record SlotKey(String userId, LocalDate date) {}
+
+    /** Per-date scheduling state. All fields are guarded by the slot's monitor. */
+    private static final class DateSlot {
+        boolean dirty;
+        boolean running;
+        boolean retired;
+        boolean urgent;
+        ScheduledFuture<?> scheduled;
+        CompletableFuture<DailySummary> pending = new CompletableFuture<>();
+        CompletableFuture<DailySummary> inFlight;
+    }
+
+    @PostConstruct
+    void start() {
+        executor = Executors.newScheduledThreadPool(Math.max(1, threads));
+    }
+
+    @PreDestroy
+    void stop() {
+        try {
+            // Failed recomputes are already logged by the worker
+            flushAll().exceptionally(ex -> null).join();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Signals that the summary for the given date is stale.
+     * Returns a future completed by the recompute that covers this signal.
+     */
+    public CompletableFuture<DailySummary> markDirty(LocalDate date) {
+        SlotKey key = new SlotKey(UserScope.currentUserId(), date);
+        while (true) {
+            DateSlot slot = slots.computeIfAbsent(key, k -> new DateSlot());
+            synchronized (slot) {
+                if (slot.retired) {
+                    continue;
+                }
+                slot.dirty = true;
+                if (slot.scheduled == null && !slot.running) {
+                    schedule(key, slot, windowMs);
+                }
+                return slot.pending;
+            }
+        }
+    }
+
+    /**
+     * Runs any pending recompute for the given date right away and returns a future
+     * that completes once the summary reflects every signal received so far.
+     */
+    public CompletableFuture<DailySummary> flush(LocalDate date) {
+        return flush(new SlotKey(UserScope.currentUserId(), date));
+    }
+
+    private CompletableFuture<DailySummary> flush(SlotKey key) {
+        DateSlot slot = slots.get(key);
+        if (slot == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        synchronized (slot) {
+            if (slot.dirty) {
+                if (slot.scheduled != null && slot.scheduled.cancel(false)) {
+                    schedule(key, slot, 0);
+                } else if (slot.running) {
+                    slot.urgent = true;
+                }
+                return slot.pending;
+            }
+            if (slot.running) {
+                return slot.inFlight;
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /** Flushes every date of every user that currently has pending or running work. */
+    public CompletableFuture<Void> flushAll() {
+        return flushMatching(null);
+    }
+
+    /** Flushes the current user's dates that have pending or running work. */
+    public CompletableFuture<Void> flushUser() {
+        return flushMatching(UserScope.currentUserId());
+    }
+
+    private CompletableFuture<Void> flushMatching(String userId) {
+        return CompletableFuture.allOf(slots.keySet().stream()
+            .filter(key -> userId == null || userId.equals(key.userId()))
+            .map(this::flush)
+            .toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Blocks until the summary for the given date is fresh.
+     * A failed recompute is rethrown (as a CompletionException), since the stored
+     * summary then does not reflect the change the caller is waiting for.
+     */
+    public void await(LocalDate date) {
+        flush(date).join();
+    }
+
+    /** Blocks until every pending recompute of the current user has finished. */
+    public void awaitAll() {
+        flushUser().exceptionally(ex -> null).join();
+    }
+
+    private void schedule(SlotKey key, DateSlot slot, long delayMs) {
+        slot.scheduled = executor.schedule(() -> drain(key, slot), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void drain(SlotKey key, DateSlot slot) {
+        CompletableFuture<DailySummary> batch;
+        synchronized (slot) {
+            slot.scheduled = null;
+            slot.running = true;
+            slot.dirty = false;
+            batch = slot.pending;
+            slot.inFlight = batch;
+            slot.pending = new CompletableFuture<>();
+        }
+
+        try {
+            batch.complete(dailySummaryService.recompute(key.userId(), key.date()));
+        } catch (Exception ex) {
+            log.error("Failed to recompute summary of {} for {}", key.userId(), key.date(), ex);
+            batch.completeExceptionally(ex);
+        }
+
+        synchronized (slot) {
+            slot.running = false;
+            slot.inFlight = null;
+            if (slot.dirty) {
+                schedule(key, slot, slot.urgent ? 0 : windowMs);
+                slot.urgent = false;
+            } else {
+                slot.retired = true;
+                slots.remove(key, slot);
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.growthtracker.service;
+
+import com.growthtracker.model.Task;
+import com.growthtracker.repository.TaskRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory snapshots of the task catalog shared by all read paths, one per user.
+ *
+ * Each snapshot is immutable and indexed by id, category and frequency. Writes go
+ * through TaskService, which hands the saved task to put/remove; those build a new
+ * snapshot from the old one (copy-on-write) and swap it in atomically, so readers
+ * never block and never see a half-applied change.
+ *
+ * A user's snapshot is loaded on first access and kept in a bounded UserCache; it
+ * expires after user-cache.ttl so changes made through other instances show up.
+ *
+ * The no-argument accessors read the snapshot of the current request's user (UserScope).
+ * Tasks returned from the snapshot are shared — callers must not mutate them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskCatalog {
+
+    private final TaskRepository taskRepository;
+
+    private static final Snapshot EMPTY = new Snapshot(List.of());
+
+    @Value("${user-cache.max-users:1000}")
+    private int maxUsers;
+
+    @Value("${user-cache.ttl:5m}")
+    private Duration ttl;
+
+    /** userId → that user's snapshot, loaded on first access */
+    private UserCache<Snapshot> snapshots;
+
+    /** Immutable view of one user's tasks with lookup indexes. */
+    public static final class Snapshot {
+
+        private final List<Task> tasks;
+        private final Map<String, Task> byId;
+        private final Map<String, List<Task>> byCategory;
+        private final Map<String, List<Task>> byFrequency;
+
+        Snapshot(Collection<Task> tasks) {
+            this.tasks = List.copyOf(tasks);
+            Map<String, Task> ids = new LinkedHashMap<>();
+            for (Task task : this.tasks) {
+                ids.put(task.getId(), task);
+            }
+            this.byId = Map.copyOf(ids);
+            this.byCategory = index(this.tasks, Task::getCategory);
+            this.byFrequency = index(this.tasks, Task::getFrequency);
+        }
+
+        private static Map<String, List<Task>> index(List<Task> tasks,
+                                                     Function<Task, String> key) {
+            return tasks.stream()
+                .filter(t -> key.apply(t) != null)
+                .collect(Collectors.collectingAndThen(
+                    Collectors.groupingBy(key, Collectors.toUnmodifiableList()),
+                    Map::copyOf));
+        }
+
+        public List<Task> all() {
+            return tasks;
+        }
+
+        public Optional<Task> findById(String id) {
+            return Optional.ofNullable(id).map(byId::get);
+        }
+
+        public boolean contains(String id) {
+            return id != null && byId.containsKey(id);
+        }
+
+        public List<Task> byCategory(String category) {
+            return byCategory.getOrDefault(category, List.of());
+        }
+
+        public List<Task> byFrequency(String frequency) {
+            return byFrequency.getOrDefault(frequency, List.of());
+        }
+
+        public boolean isEmpty() {
+            return tasks.isEmpty();
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        snapshots = new UserCache<>("Task catalog", maxUsers, ttl, this::load);
+    }
+
+    private Snapshot load(String userId) {
+        List<Task> tasks = taskRepository.findByUserId(userId);
+        log.debug("Loaded task catalog of {} with {} tasks", userId, tasks.size());
+        return tasks.isEmpty() ? EMPTY : new Snapshot(tasks);
+    }
+
+    /** Drops every loaded snapshot, e.g. after a startup backfill rewrote tasks. */
+    public void invalidateAll() {
+        snapshots.invalidateAll();
+    }
+
+    /** Current user's snapshot; hold on to it to read several indexes consistently. */
+    public Snapshot snapshot() {
+        return snapshot(UserScope.currentUserId());
+    }
+
+    public Snapshot snapshot(String userId) {
+        return snapshots.get(userId);
+    }
+
+    public List<Task> all() {
+        return snapshot().all();
+    }
+
+    public Optional<Task> findById(String id) {
+        return snapshot().findById(id);
+    }
+
+    /**
+     * Adds or replaces a task after it has been saved. Concurrent writes to one task can
+     * reach the catalog out of order, so a task older than the cached copy is ignored.
+     */
+    public void put(Task task) {
+        snapshots.update(ownerOf(task), snapshot -> {
+            List<Task> current = snapshot.all();
+            List<Task> next = new ArrayList<>(current.size() + 1);
+            boolean replaced = false;
+            for (Task existing : current) {
+                if (existing.getId().equals(task.getId())) {
+                    if (isOlder(task, existing)) {
+                        log.debug("Ignoring stale catalog write for task {}", task.getId());
+                        return snapshot;
+                    }
+                    next.add(task);
+                    replaced = true;
+                } else {
+                    next.add(existing);
+                }
+            }
+            if (!replaced) {
+                next.add(task);
+            }
+            return new Snapshot(next);
+        });
+    }
+
+    /** Adds newly inserted tasks of one user in one snapshot swap. */
+    public void putAll(Collection<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        snapshots.update(ownerOf(tasks.iterator().next()), snapshot -> {
+            List<Task> next = new ArrayList<>(snapshot.all().size() + tasks.size());
+            next.addAll(snapshot.all());
+            next.addAll(tasks);
+            return new Snapshot(next);
+        });
+    }
+
+    /** Drops a task after it has been deleted. */
+    public void remove(Task task) {
+        snapshots.update(ownerOf(task), snapshot -> new Snapshot(snapshot.all().stream()
+            .filter(t -> !t.getId().equals(task.getId()))
+            .toList()));
+    }
+
+    /** Compares at Mongo's millisecond precision, since only some writers read their task back. */
+    private static boolean isOlder(Task candidate, Task cached) {
+        if (candidate.getUpdatedAt() == null || cached.getUpdatedAt() == null) {
+            return false;
+        }
+        return candidate.getUpdatedAt().truncatedTo(ChronoUnit.MILLIS)
+            .isBefore(cached.getUpdatedAt().truncatedTo(ChronoUnit.MILLIS));
+    }
+
+    /** Tasks written before tenancy have no userId until TenancyMigration runs. */
+    private static String ownerOf(Task task) {
+        return Objects.requireNonNullElse(task.getUserId(), UserScope.DEFAULT_USER_ID);
+    }
+}
@@ -0,0 +1,132 @@
+package com.growthtracker.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.growthtracker.dto.TaskHistoryFilterRequest;
+import com.growthtracker.model.Task;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Full task-history export as NDJSON or CSV.
+ *
+ * Uses the same filters and order as POST /api/tasks/history but no paging. Rows are
+ * read from a MongoTemplate.stream cursor and written straight to the response, so
+ * memory use does not depend on how many tasks match.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskHistoryExportService {
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+
+    private static final int FLUSH_EVERY = 500;
+    private static final String CSV_HEADER =
+        "id,title,category,frequency,priority,timeSpent,completedAt,completionNote";
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getFileName() {
+            return "task-history." + extension;
+        }
+
+        public static Format of(String value) {
+            try {
+                return Format.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException ex) {
+                throw new IllegalArgumentException("Format must be 'ndjson' or 'csv'");
+            }
+        }
+    }
+
+    /**
+     * Validates the filters and returns a body that runs the query when the response
+     * is written; validation errors are thrown here, before any output is sent.
+     */
+    public StreamingResponseBody export(TaskHistoryFilterRequest filters, Format format) {
+        TaskHistoryFilterRequest request = filters != null ? filters : new TaskHistoryFilterRequest();
+        Query query = TaskService.historyQuery(request);
+
+        return out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            long rows = 0;
+            if (format == Format.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+            try (Stream<Task> tasks = mongoTemplate.stream(query, Task.class)) {
+                for (Task task : (Iterable<Task>) tasks::iterator) {
+                    if (format == Format.CSV) {
+                        writeCsv(writer, task);
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(task));
+                        writer.write('\n');
+                    }
+                    if (++rows % FLUSH_EVERY == 0) {
+                        writer.flush();
+                    }
+                }
+            }
+            writer.flush();
+            log.info("Exported {} history rows as {}", rows, format);
+        };
+    }
+
+    private static void writeCsv(Writer writer, Task task) throws IOException {
+        writer.write(csv(task.getId()));
+        writer.write(',');
+        writer.write(csv(task.getTitle()));
+        writer.write(',');
+        writer.write(csv(task.getCategory()));
+        writer.write(',');
+        writer.write(csv(task.getFrequency()));
+        writer.write(',');
+        writer.write(csv(task.getPriority()));
+        writer.write(',');
+        writer.write(csv(task.getTimeSpent()));
+        writer.write(',');
+        writer.write(csv(task.getCompletedAt()));
+        writer.write(',');
+        writer.write(csv(task.getCompletionNote()));
+        writer.write('\n');
+    }
+
+    /** RFC 4180 field: quoted only when it contains a comma, quote or line break. */
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String s = value.toString();
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) {
+            return s;
+        }
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,277 @@
+package com.growthtracker.service;
+
+import com.growthtracker.dto.TaskDTO;
+import com.growthtracker.dto.TaskImportResultDTO;
+import com.growthtracker.model.Priority;
+import com.growthtracker.model.Task;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk task creation from JSON or CSV.
+ *
+ * Rows are validated with the same constraints as POST /api/tasks. Titles are checked
+ * against the database with a single $in query and against earlier rows of the same
+ * import; the remaining rows go in with one unordered bulk insert. A title inserted
+ * concurrently is caught by the unique index and reported as a duplicate.
+ * Tasks are created for, and titles checked against, the current user.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskImportService {
+
+    private final MongoTemplate mongoTemplate;
+    private final TaskCatalog taskCatalog;
+    private final Validator validator;
+
+    private static final int MAX_ROWS = 1000;
+    private static final int DUPLICATE_KEY = 11000;
+    private static final List<String> CSV_COLUMNS =
+        List.of("title", "category", "frequency", "scheduleddate", "priority");
+
+    /** One parsed input row; dto is null when the row could not be parsed. */
+    private record ImportRow(int line, TaskDTO dto, String error) {}
+
+    public TaskImportResultDTO importJson(List<TaskDTO> tasks) {
+        List<ImportRow> rows = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            TaskDTO dto = tasks.get(i);
+            rows.add(dto != null ? new ImportRow(i + 1, dto, null) : new ImportRow(i + 1, null, "Row is empty"));
+        }
+        return importRows(rows);
+    }
+
+    /**
+     * Imports CSV with a header line naming the columns (any order, case-insensitive):
+     * title, category, frequency, scheduledDate (yyyy-MM-dd, optional), priority (optional, default MEDIUM).
+     */
+    public TaskImportResultDTO importCsv(String csv) {
+        String[] lines = csv.split("\r?\n", -1);
+        if (lines.length == 0 || lines[0].isBlank()) {
+            throw new IllegalArgumentException("CSV must start with a header line");
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> header = parseCsvLine(lines[0]);
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("title")) {
+            throw new IllegalArgumentException("CSV header must include a 'title' column");
+        }
+
+        List<ImportRow> rows = new ArrayList<>();
+        for (int i = 1; i < lines.length; i++) {
+            if (lines[i].isBlank()) {
+                continue;
+            }
+            int line = i + 1;
+            try {
+                List<String> fields = parseCsvLine(lines[i]);
+                Map<String, String> values = new HashMap<>();
+                for (String column : CSV_COLUMNS) {
+                    Integer index = columns.get(column);
+                    if (index != null && index < fields.size() && !fields.get(index).isBlank()) {
+                        values.put(column, fields.get(index).trim());
+                    }
+                }
+                TaskDTO dto = new TaskDTO();
+                dto.setTitle(values.get("title"));
+                dto.setCategory(values.get("category"));
+                dto.setFrequency(values.get("frequency"));
+                if (values.containsKey("scheduleddate")) {
+                    dto.setScheduledDate(LocalDate.parse(values.get("scheduleddate")));
+                }
+                dto.setPriority(values.containsKey("priority") ? parsePriority(values.get("priority")) : Priority.MEDIUM);
+                rows.add(new ImportRow(line, dto, null));
+            } catch (DateTimeParseException ex) {
+                rows.add(new ImportRow(line, null, "scheduledDate must be yyyy-MM-dd"));
+            } catch (IllegalArgumentException ex) {
+                rows.add(new ImportRow(line, null, ex.getMessage()));
+            }
+        }
+        return importRows(rows);
+    }
+
+    private TaskImportResultDTO importRows(List<ImportRow> rows) {
+        if (rows.size() > MAX_ROWS) {
+            throw new IllegalArgumentException("An import cannot exceed " + MAX_ROWS + " rows");
+        }
+
+        List<TaskImportResultDTO.Row> results = new ArrayList<>(rows.size());
+        // result index → task to insert, for rows that passed validation
+        Map<Integer, TaskDTO> candidates = new LinkedHashMap<>();
+        for (ImportRow row : rows) {
+            String error = row.error() != null ? row.error() : validate(row.dto());
+            results.add(TaskImportResultDTO.Row.builder()
+                .line(row.line())
+                .title(row.dto() != null ? row.dto().getTitle() : null)
+                .status(error == null ? TaskImportResultDTO.Status.CREATED : TaskImportResultDTO.Status.INVALID)
+                .error(error)
+                .build());
+            if (error == null) {
+                candidates.put(results.size() - 1, row.dto());
+            }
+        }
+
+        // One round trip for every title that already exists
+        String userId = UserScope.currentUserId();
+        Set<String> existing = new HashSet<>();
+        if (!candidates.isEmpty()) {
+            Query titles = new Query(Criteria.where("userId").is(userId).and("title").in(
+                candidates.values().stream().map(TaskDTO::getTitle).collect(Collectors.toSet())));
+            titles.fields().include("title");
+            mongoTemplate.find(titles, Task.class).forEach(t -> existing.add(t.getTitle()));
+        }
+
+        List<Task> inserts = new ArrayList<>();
+        List<Integer> insertToResult = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<Integer, TaskDTO> candidate : candidates.entrySet()) {
+            TaskDTO dto = candidate.getValue();
+            TaskImportResultDTO.Row result = results.get(candidate.getKey());
+            if (existing.contains(dto.getTitle())) {
+                markDuplicate(result, "A task with this title already exists");
+            } else if (!seen.add(dto.getTitle())) {
+                markDuplicate(result, "Title appears earlier in this import");
+            } else {
+                // Ids are assigned up front so they can be reported and cached without a re-read;
+                // with an id present auditing treats the task as existing, so createdAt is set here
+                Task task = Task.builder()
+                    .id(new ObjectId().toHexString())
+                    .userId(userId)
+                    .title(dto.getTitle())
+                    .category(dto.getCategory())
+                    .frequency(dto.getFrequency())
+                    .scheduledDate(dto.getScheduledDate())
+                    .priority(dto.getPriority() != null ? dto.getPriority() : Priority.MEDIUM)
+                    .createdAt(now)
+                    .build();
+                inserts.add(task);
+                insertToResult.add(candidate.getKey());
+                result.setTaskId(task.getId());
+            }
+        }
+
+        Set<Integer> failedInserts = new HashSet<>();
+        if (!inserts.isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Task.class);
+            bulk.insert(inserts);
+            try {
+                bulk.execute();
+            } catch (BulkOperationException ex) {
+                for (BulkWriteError writeError : ex.getErrors()) {
+                    failedInserts.add(writeError.getIndex());
+                    TaskImportResultDTO.Row result = results.get(insertToResult.get(writeError.getIndex()));
+                    result.setTaskId(null);
+                    if (writeError.getCode() == DUPLICATE_KEY) {
+                        markDuplicate(result, "A task with this title already exists");
+                    } else {
+                        result.setStatus(TaskImportResultDTO.Status.INVALID);
+                        result.setError(writeError.getMessage());
+                    }
+                }
+            }
+        }
+
+        List<Task> created = new ArrayList<>(inserts.size());
+        for (int i = 0; i < inserts.size(); i++) {
+            if (!failedInserts.contains(i)) {
+                created.add(inserts.get(i));
+            }
+        }
+        taskCatalog.putAll(created);
+
+        TaskImportResultDTO report = TaskImportResultDTO.builder()
+            .created(count(results, TaskImportResultDTO.Status.CREATED))
+            .duplicates(count(results, TaskImportResultDTO.Status.DUPLICATE))
+            .invalid(count(results, TaskImportResultDTO.Status.INVALID))
+            .rows(results)
+            .build();
+        log.info("Imported tasks: {} created, {} duplicate, {} invalid",
+            report.getCreated(), report.getDuplicates(), report.getInvalid());
+        return report;
+    }
+
+    /** First constraint violation of the row, or null if it is valid. */
+    private String validate(TaskDTO dto) {
+        Set<ConstraintViolation<TaskDTO>> violations = validator.validate(dto);
+        return violations.isEmpty()
+            ? null
+            : violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+    }
+
+    private static void markDuplicate(TaskImportResultDTO.Row result, String error) {
+        result.setStatus(TaskImportResultDTO.Status.DUPLICATE);
+        result.setError(error);
+    }
+
+    private static int count(List<TaskImportResultDTO.Row> rows, TaskImportResultDTO.Status status) {
+        return (int) rows.stream().filter(r -> r.getStatus() == status).count();
+    }
+
+    private static Priority parsePriority(String value) {
+        try {
+            return Priority.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("priority must be one of LOW, MEDIUM, HIGH, URGENT");
+        }
+    }
+
+    /** Splits one CSV line; fields may be quoted, with "" as an escaped quote. */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
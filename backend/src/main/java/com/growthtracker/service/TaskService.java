@@ -2,35 +2,47 @@ package com.growthtracker.service;
 
 import com.growthtracker.dto.CompleteTaskRequest;
 import com.growthtracker.dto.TaskDTO;
+import com.growthtracker.dto.TaskHistoryFacetsDTO;
 import com.growthtracker.dto.TaskHistoryFilterRequest;
+import com.growthtracker.dto.TaskHistoryPageDTO;
+import com.growthtracker.dto.TaskPageDTO;
 import com.growthtracker.exception.DuplicateTitleException;
 import com.growthtracker.exception.ResourceNotFoundException;
+import com.growthtracker.exception.TaskAlreadyCompletedException;
 import com.growthtracker.model.Task;
 import com.growthtracker.repository.TaskRepository;
 import com.growthtracker.repository.TaskStatusRepository;
 import com.growthtracker.model.Priority;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
-import org.springframework.data.mongodb.core.query.Criteria;
-import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
-import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
-import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
-import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Task CRUD operations.
- * Enforces unique title constraint at the service layer (complementing the DB index).
+ * Each write is a single atomic round trip; title uniqueness is enforced by the unique
+ * index and its DuplicateKeyException is reported as DuplicateTitleException.
  * Cascades deletes to TaskStatus records to avoid orphaned data.
  */
 @Slf4j
@@ -41,9 +53,20 @@ public class TaskService {
     private final TaskRepository taskRepository;
     private final TaskStatusRepository taskStatusRepository;
     private final MongoTemplate mongoTemplate;
+    private final TaskCatalog taskCatalog;
+    private final WeeklyAnalyticsView weeklyAnalyticsView;
+    private final CompletionBitmapIndex completionBitmapIndex;
+    private final TimeSpentAnalyticsService timeSpentAnalyticsService;
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    /** Dashboard order: PENDING before COMPLETED, then priority weight DESC; served by userId_status_prioWeight_idx */
+    private static final Sort DASHBOARD_SORT = Sort.by(Sort.Direction.DESC, "status")
+        .and(Sort.by(Sort.Direction.DESC, "prioWeight"))
+        .and(Sort.by(Sort.Direction.ASC, "_id"));
 
     public List<Task> getAllTasks() {
-        return taskRepository.findAll().stream()
+        return taskCatalog.all().stream()
             .sorted((t1, t2) -> {
                 // Primary: Status (PENDING before COMPLETED)
                 int statusCompare = t1.getStatus().compareTo(t2.getStatus()); // "COMPLETED" > "PENDING" ? No, C < P. 
@@ -63,65 +86,148 @@ public class TaskService {
             .toList();
     }
 
+    /**
+     * One page of tasks in dashboard order, sorted and paged by Mongo.
+     * Fetches one extra row to tell whether another page follows.
+     */
+    public TaskPageDTO getTasksPage(int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Page cannot be negative");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Query query = new Query(ownedBy()).with(DASHBOARD_SORT)
+            .skip((long) page * size)
+            .limit(size + 1);
+        List<Task> rows = mongoTemplate.find(query, Task.class);
+        boolean hasNext = rows.size() > size;
+
+        return TaskPageDTO.builder()
+            .content(hasNext ? rows.subList(0, size) : rows)
+            .page(page)
+            .size(size)
+            .totalElements(taskCatalog.all().size())
+            .hasNext(hasNext)
+            .build();
+    }
+
     public Task getTaskById(String id) {
-        return taskRepository.findById(id)
+        return taskRepository.findByUserIdAndId(UserScope.currentUserId(), id)
             .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
     }
 
+    /** Relies on the unique (userId, title) index instead of a separate existence check. */
     public Task createTask(TaskDTO dto) {
-        if (taskRepository.existsByTitle(dto.getTitle())) {
-            throw new DuplicateTitleException(dto.getTitle());
-        }
         Task task = Task.builder()
+            .userId(UserScope.currentUserId())
             .title(dto.getTitle())
             .category(dto.getCategory())
             .frequency(dto.getFrequency())
             .scheduledDate(dto.getScheduledDate())
             .priority(dto.getPriority() != null ? dto.getPriority() : Priority.MEDIUM)
             .build();
-        Task saved = taskRepository.save(task);
+        Task saved;
+        try {
+            saved = taskRepository.save(task);
+        } catch (DuplicateKeyException ex) {
+            throw new DuplicateTitleException(dto.getTitle());
+        }
+        taskCatalog.put(saved);
         log.info("Created task: {}", saved.getId());
         return saved;
     }
 
+    /**
+     * Applies the update in one findAndModify that returns the pre-image. The old
+     * category comes from that pre-image, so the analytics see the category move this
+     * write actually made, and the stored task is the pre-image with the updated fields
+     * applied (including a status set by a concurrent completeTask). A title clash
+     * surfaces as a duplicate key.
+     */
     public Task updateTask(String id, TaskDTO dto) {
-        Task existing = getTaskById(id);
+        Priority priority = dto.getPriority() != null ? dto.getPriority() : Priority.MEDIUM;
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update()
+            .set("title", dto.getTitle())
+            .set("category", dto.getCategory())
+            .set("frequency", dto.getFrequency())
+            .set("scheduledDate", dto.getScheduledDate())
+            .set("priority", priority)
+            .set("prioWeight", priority.getWeight())
+            .set("updatedAt", now);
 
-        if (taskRepository.existsByTitleAndIdNot(dto.getTitle(), id)) {
+        Task saved;
+        try {
+            saved = mongoTemplate.findAndModify(new Query(ownedBy().and("_id").is(id)), update,
+                FindAndModifyOptions.options().returnNew(false), Task.class);
+        } catch (DuplicateKeyException ex) {
             throw new DuplicateTitleException(dto.getTitle());
         }
+        if (saved == null) {
+            throw new ResourceNotFoundException("Task not found with id: " + id);
+        }
+
+        String oldCategory = saved.getCategory();
+        saved.setTitle(dto.getTitle());
+        saved.setCategory(dto.getCategory());
+        saved.setFrequency(dto.getFrequency());
+        saved.setScheduledDate(dto.getScheduledDate());
+        saved.setPriority(priority);
+        saved.setPrioWeight(priority.getWeight());
+        saved.setUpdatedAt(now);
 
-        existing.setTitle(dto.getTitle());
-        existing.setCategory(dto.getCategory());
-        existing.setFrequency(dto.getFrequency());
-        existing.setScheduledDate(dto.getScheduledDate());
-        existing.setPriority(dto.getPriority() != null ? dto.getPriority() : Priority.MEDIUM);
-        Task updated = taskRepository.save(existing);
-        log.info("Updated task: {}", updated.getId());
-        return updated;
+        taskCatalog.put(saved);
+        if ("COMPLETED".equals(saved.getStatus())) {
+            timeSpentAnalyticsService.onCategoryChanged(saved, oldCategory);
+        }
+        log.info("Updated task: {}", saved.getId());
+        return saved;
     }
 
+    /**
+     * Completes the task with a findAndModify guarded by status != COMPLETED, so two
+     * concurrent requests cannot both complete it. The extra lookup only runs on failure,
+     * to tell a missing task (404) from one that is already completed (409).
+     */
     public Task completeTask(String id, CompleteTaskRequest request) {
-        Task task = getTaskById(id);
+        LocalDateTime now = LocalDateTime.now();
+        Query pending = new Query(ownedBy().and("_id").is(id).and("status").ne("COMPLETED"));
+        Update update = new Update()
+            .set("status", "COMPLETED")
+            .set("completionNote", request.getNote())
+            .set("timeSpent", request.getTimeSpent())
+            .set("completedAt", now)
+            .set("updatedAt", now);
 
-        if ("COMPLETED".equals(task.getStatus())) {
-            throw new IllegalStateException("Task already completed");
+        Task saved = mongoTemplate.findAndModify(pending, update,
+            FindAndModifyOptions.options().returnNew(true), Task.class);
+        if (saved == null) {
+            if (!taskRepository.existsByUserIdAndId(UserScope.currentUserId(), id)) {
+                throw new ResourceNotFoundException("Task not found with id: " + id);
+            }
+            throw new TaskAlreadyCompletedException(id);
         }
 
-        task.setStatus("COMPLETED");
-        task.setCompletionNote(request.getNote());
-        task.setTimeSpent(request.getTimeSpent());
-        task.setCompletedAt(LocalDateTime.now());
-
-        Task saved = taskRepository.save(task);
+        taskCatalog.put(saved);
+        timeSpentAnalyticsService.onCompleted(saved);
         log.info("Task {} marked as COMPLETED", id);
         return saved;
     }
 
     public void deleteTask(String id) {
-        getTaskById(id);
-        taskStatusRepository.deleteByTaskId(id);
-        taskRepository.deleteById(id);
+        Task task = mongoTemplate.findAndRemove(new Query(ownedBy().and("_id").is(id)), Task.class);
+        if (task == null) {
+            throw new ResourceNotFoundException("Task not found with id: " + id);
+        }
+        taskStatusRepository.deleteByUserIdAndTaskId(task.getUserId(), id);
+        taskCatalog.remove(task);
+        weeklyAnalyticsView.onTaskDeleted(id);
+        completionBitmapIndex.onTaskDeleted(id);
+        if ("COMPLETED".equals(task.getStatus())) {
+            timeSpentAnalyticsService.onRemoved(task);
+        }
         log.info("Deleted task {} and its status history.", id);
     }
 
@@ -130,16 +236,176 @@ public class TaskService {
             filters = new TaskHistoryFilterRequest();
         }
 
+        Query query = historyQuery(filters);
+
+        // Pagination
+        int page = (filters.getPage() != null && filters.getPage() >= 0) ? filters.getPage() : 0;
+        int size = historyPageSize(filters);
+        query.with(PageRequest.of(page, size));
+        return mongoTemplate.find(query, Task.class);
+    }
+
+    /**
+     * Keyset-paged history: same filters and sorts as getTaskHistory, but each page
+     * continues from the previous page's cursor, so deep pages cost the same as the first.
+     */
+    public TaskHistoryPageDTO getTaskHistoryPage(TaskHistoryFilterRequest filters) {
+        if (filters == null) {
+            filters = new TaskHistoryFilterRequest();
+        }
+
+        HistoryKeyset keyset = HistoryKeyset.of(filters.getSortBy());
+        Criteria criteria = historyCriteria(filters);
+        if (StringUtils.hasText(filters.getCursor())) {
+            criteria = new Criteria().andOperator(criteria, keyset.after(filters.getCursor()));
+        }
+
+        int size = historyPageSize(filters);
+        TextCriteria text = historyText(filters);
+        Query query = (text != null ? TextQuery.queryText(text) : new Query())
+            .addCriteria(criteria)
+            .with(keyset.sort())
+            .limit(size + 1);
+        List<Task> rows = mongoTemplate.find(query, Task.class);
+        boolean hasNext = rows.size() > size;
+        List<Task> content = hasNext ? rows.subList(0, size) : rows;
+
+        return TaskHistoryPageDTO.builder()
+            .content(content)
+            .hasNext(hasNext)
+            .nextCursor(hasNext ? keyset.encode(content.get(size - 1), mongoTemplate.getConverter()) : null)
+            .build();
+    }
+
+    /**
+     * One history page plus the total and facet counts, in a single $facet aggregation
+     * over the same filters as getTaskHistory.
+     */
+    public TaskHistoryFacetsDTO getTaskHistoryFacets(TaskHistoryFilterRequest filters) {
+        if (filters == null) {
+            filters = new TaskHistoryFilterRequest();
+        }
+
+        int page = (filters.getPage() != null && filters.getPage() >= 0) ? filters.getPage() : 0;
+        int size = historyPageSize(filters);
+        TextCriteria text = historyText(filters);
+
+        Document pageSort = new Document();
+        String sortBy = filters.getSortBy();
+        if (text != null && (!StringUtils.hasText(sortBy) || "relevance".equalsIgnoreCase(sortBy))) {
+            pageSort.append("score", new Document("$meta", "textScore"));
+        } else {
+            for (Sort.Order order : HistoryKeyset.of(sortBy).sort()) {
+                pageSort.append(order.getProperty(), order.isAscending() ? 1 : -1);
+            }
+        }
+
+        AggregationOperation facet = context -> new Document("$facet", new Document()
+            .append("page", List.of(
+                new Document("$sort", pageSort),
+                new Document("$skip", (long) page * size),
+                new Document("$limit", size)))
+            .append("total", List.of(new Document("$count", "n")))
+            .append("byCategory", countBy("$category", new Document("n", -1).append("_id", 1)))
+            .append("byPriority", countBy("$priority", new Document("n", -1).append("_id", 1)))
+            .append("byMonth", countBy(new Document("$dateToString", new Document("format", "%Y-%m")
+                .append("date", "$completedAt")
+                .append("timezone", ZoneId.systemDefault().getId())), new Document("_id", 1))));
+
+        List<AggregationOperation> stages = new ArrayList<>();
+        if (text != null) {
+            // $text is only allowed in the first $match stage, and the userId-prefixed
+            // text index needs the userId equality in that same stage
+            Document textMatch = new Document(text.getCriteriaObject()).append("userId", UserScope.currentUserId());
+            stages.add(context -> new Document("$match", textMatch));
+        }
+        stages.add(Aggregation.match(historyCriteria(filters)));
+        stages.add(facet);
+        Document result = mongoTemplate.aggregate(Aggregation.newAggregation(Task.class, stages), Document.class)
+            .getUniqueMappedResult();
+
+        List<Task> content = new ArrayList<>();
+        long total = 0;
+        if (result != null) {
+            for (Document doc : result.getList("page", Document.class)) {
+                content.add(mongoTemplate.getConverter().read(Task.class, doc));
+            }
+            List<Document> totals = result.getList("total", Document.class);
+            total = totals.isEmpty() ? 0 : ((Number) totals.get(0).get("n")).longValue();
+        }
+
+        return TaskHistoryFacetsDTO.builder()
+            .content(content)
+            .page(page)
+            .size(size)
+            .totalElements(total)
+            .totalPages((int) ((total + size - 1) / size))
+            .byCategory(facetCounts(result, "byCategory", "Uncategorized"))
+            .byPriority(facetCounts(result, "byPriority", Priority.MEDIUM.name()))
+            .byMonth(facetCounts(result, "byMonth", "unknown"))
+            .build();
+    }
+
+    private static List<Document> countBy(Object key, Document sort) {
+        return List.of(
+            new Document("$group", new Document("_id", key).append("n", new Document("$sum", 1))),
+            new Document("$sort", sort));
+    }
+
+    /** Reads one facet into a map; a null key (missing field) is counted under nullKey. */
+    private static Map<String, Long> facetCounts(Document result, String facet, String nullKey) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        if (result != null) {
+            for (Document bucket : result.getList(facet, Document.class)) {
+                Object key = bucket.get("_id");
+                counts.merge(key != null ? key.toString() : nullKey, ((Number) bucket.get("n")).longValue(), Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    /** Filtered and sorted history query without paging; shared with the export. */
+    static Query historyQuery(TaskHistoryFilterRequest filters) {
+        TextCriteria text = historyText(filters);
+        Query query = (text != null ? TextQuery.queryText(text) : new Query())
+            .addCriteria(historyCriteria(filters));
+
+        String sortBy = filters.getSortBy();
+        if (text != null && (!StringUtils.hasText(sortBy) || "relevance".equalsIgnoreCase(sortBy))) {
+            // Keyword search without an explicit order: best matches first
+            ((TextQuery) query).sortByScore();
+        } else {
+            // latest (default), oldest, time_desc or priority; each backed by an index on tasks
+            query.with(HistoryKeyset.of(sortBy).sort());
+        }
+        return query;
+    }
+
+    /** Requested history page size, defaulting to 10 and capped at MAX_PAGE_SIZE. */
+    private static int historyPageSize(TaskHistoryFilterRequest filters) {
+        return (filters.getSize() != null && filters.getSize() > 0) ? Math.min(filters.getSize(), MAX_PAGE_SIZE) : 10;
+    }
+
+    /**
+     * Keyword search over title, category and completionNote via the text index,
+     * or null when no keyword was given.
+     */
+    private static TextCriteria historyText(TaskHistoryFilterRequest filters) {
+        return StringUtils.hasText(filters.getSearchKeyword())
+            ? TextCriteria.forDefaultLanguage().matching(filters.getSearchKeyword())
+            : null;
+    }
+
+    /** Filter criteria shared by the offset and keyset history paths (keyword search excluded). */
+    private static Criteria historyCriteria(TaskHistoryFilterRequest filters) {
         // 1. Date Validation
         if (filters.getStartDate() != null && filters.getEndDate() != null 
                 && filters.getStartDate().isAfter(filters.getEndDate())) {
             throw new IllegalArgumentException("Start date cannot be after end date");
         }
 
-        Query query = new Query();
-        
-        // 2. Always filter status = "COMPLETED"
-        Criteria criteria = Criteria.where("status").is("COMPLETED");
+        // 2. Always filter on the current user and status = "COMPLETED"
+        Criteria criteria = ownedBy().and("status").is("COMPLETED");
 
         // 3. Optional Filters
         if (StringUtils.hasText(filters.getCategory())) {
@@ -163,56 +429,15 @@ public class TaskService {
             criteria.and("timeSpent").lte(filters.getMaxTimeSpent());
         }
 
-        if (StringUtils.hasText(filters.getSearchKeyword())) {
-            criteria.and("title").regex(filters.getSearchKeyword(), "i");
-        }
-
         if (filters.getPriority() != null) {
             criteria.and("priority").is(filters.getPriority());
         }
 
-        query.addCriteria(criteria);
-
-        // 4. Sorting
-        String sortBy = filters.getSortBy();
-        
-        // 5. Pagination
-        int page = (filters.getPage() != null && filters.getPage() >= 0) ? filters.getPage() : 0;
-        int size = (filters.getSize() != null && filters.getSize() > 0) ? filters.getSize() : 10;
-        
-        // If sorting by priority, we need custom weights via Aggregation
-        if ("priority".equalsIgnoreCase(sortBy)) {
-            AggregationOperation match = Aggregation.match(criteria);
-            
-            // Safer weight assignment using nested ConditionalOperators.when
-            // Note: withValue() returns the AggregationOperation directly, no .build() needed at the end.
-            AggregationOperation addWeight = Aggregation.addFields()
-                .addField("prioWeight")
-                .withValue(ConditionalOperators.when(ComparisonOperators.valueOf("priority").equalToValue("URGENT")).then(3)
-                    .otherwise(ConditionalOperators.when(ComparisonOperators.valueOf("priority").equalToValue("HIGH")).then(2)
-                        .otherwise(ConditionalOperators.when(ComparisonOperators.valueOf("priority").equalToValue("MEDIUM")).then(1)
-                            .otherwise(0))));
-            
-            AggregationOperation sort = Aggregation.sort(Sort.Direction.DESC, "prioWeight")
-                    .and(Sort.Direction.DESC, "completedAt"); // secondary sort
-            AggregationOperation skip = Aggregation.skip((long) page * size);
-            AggregationOperation limit = Aggregation.limit(size);
-            
-            TypedAggregation<Task> aggregation = Aggregation.newAggregation(Task.class, match, addWeight, sort, skip, limit);
-            return mongoTemplate.aggregate(aggregation, Task.class).getMappedResults();
-        }
-
-        // Standard Query for other cases
-        if ("oldest".equalsIgnoreCase(sortBy)) {
-            query.with(Sort.by(Sort.Direction.ASC, "completedAt"));
-        } else if ("time_desc".equalsIgnoreCase(sortBy)) {
-            query.with(Sort.by(Sort.Direction.DESC, "timeSpent"));
-        } else {
-            // Default: latest completed first
-            query.with(Sort.by(Sort.Direction.DESC, "completedAt"));
-        }
+        return criteria;
+    }
 
-        query.with(PageRequest.of(page, size));
-        return mongoTemplate.find(query, Task.class);
+    /** Restricts a query to the current user's tasks. */
+    private static Criteria ownedBy() {
+        return Criteria.where("userId").is(UserScope.currentUserId());
     }
 }
@@ -1,72 +1,233 @@
 package com.growthtracker.service;
 
+import com.growthtracker.dto.BatchStatusRequest;
+import com.growthtracker.dto.BatchStatusResultDTO;
+import com.growthtracker.dto.TaskStatusRangeDTO;
 import com.growthtracker.dto.TaskWithStatusDTO;
+import com.growthtracker.exception.ResourceNotFoundException;
 import com.growthtracker.model.Task;
 import com.growthtracker.model.TaskStatus;
-import com.growthtracker.repository.TaskRepository;
 import com.growthtracker.repository.TaskStatusRepository;
+import com.mongodb.bulk.BulkWriteError;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 /**
  * Manages task completion status for a given date.
- * Upserts (insert or update) a TaskStatus record, then triggers daily summary recalculation.
+ * Atomically upserts (insert or update) a TaskStatus record, then queues daily summary recalculation.
+ * Statuses belong to the current user and can only be set on that user's tasks.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class TaskStatusService {
 
-    private final TaskRepository taskRepository;
+    private final TaskCatalog taskCatalog;
     private final TaskStatusRepository taskStatusRepository;
-    private final DailySummaryService dailySummaryService;
+    private final SummaryRecomputeQueue summaryRecomputeQueue;
+    private final MongoTemplate mongoTemplate;
+    private final WeeklyAnalyticsView weeklyAnalyticsView;
+    private final CompletionBitmapIndex completionBitmapIndex;
+
+    /** Longest range served by getStatusRange */
+    private static final int MAX_RANGE_DAYS = 366;
+
+    /** Mongo's duplicate key error code */
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final StatusWriteLocks writeLocks = new StatusWriteLocks();
 
     /**
      * Mark or toggle a task's completion status for a given date.
-     * If a record already exists → flip the completed flag.
-     * If not → insert with completed = true.
-     * Then recalculate the daily summary.
+     * A single atomic findAndModify upsert sets the completed flag, inserting the
+     * record if it does not exist yet, and returns the new document, whose state is
+     * applied to the projections under the pair's write lock.
+     * Then queue the daily summary for (coalesced, asynchronous) recalculation.
      */
     public TaskStatus markStatus(String taskId, LocalDate date, boolean completed) {
-        Optional<TaskStatus> existing = taskStatusRepository.findByTaskIdAndDate(taskId, date);
-
-        TaskStatus status;
-        if (existing.isPresent()) {
-            status = existing.get();
-            status.setCompleted(completed);
-        } else {
-            status = TaskStatus.builder()
-                .taskId(taskId)
-                .date(date)
-                .completed(completed)
-                .build();
+        if (!taskCatalog.snapshot().contains(taskId)) {
+            throw new ResourceNotFoundException("Task not found with id: " + taskId);
         }
-
-        TaskStatus saved = taskStatusRepository.save(status);
+        StatusWriteLocks.Key key = new StatusWriteLocks.Key(UserScope.currentUserId(), taskId, date);
+        TaskStatus saved = writeLocks.withLock(key, () -> {
+            TaskStatus stored = upsertStatus(taskId, date, completed);
+            publishStatusChange(taskId, date, stored.isCompleted());
+            return stored;
+        });
         log.info("Marked task {} as {} on {}", taskId, completed, date);
 
-        // Recalculate daily summary after status change
-        dailySummaryService.recompute(date);
+        // Recalculate daily summary after status change; rapid toggles on the same date are merged
+        summaryRecomputeQueue.markDirty(date);
 
         return saved;
     }
 
+    /**
+     * Keeps the in-memory analytics projections in step with a status write. Callers hold
+     * the pair's write lock and pass the stored state, so the last write wins here too.
+     */
+    private void publishStatusChange(String taskId, LocalDate date, boolean completed) {
+        weeklyAnalyticsView.onStatusChanged(taskId, date, completed);
+        completionBitmapIndex.onStatusChanged(taskId, date, completed);
+    }
+
+    private TaskStatus upsertStatus(String taskId, LocalDate date, boolean completed) {
+        Query query = new Query(Criteria.where("userId").is(UserScope.currentUserId())
+            .and("taskId").is(taskId).and("date").is(date));
+        Update update = new Update().set("completed", completed);
+        FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(true);
+        try {
+            return mongoTemplate.findAndModify(query, update, options, TaskStatus.class);
+        } catch (DuplicateKeyException ex) {
+            // Two first-time upserts raced on userId_taskId_date_idx; the record exists now, so update it
+            return mongoTemplate.findAndModify(query, update, options, TaskStatus.class);
+        }
+    }
+
+    /**
+     * Applies many (taskId, date, completed) entries with one unordered bulk upsert.
+     * Entries with a missing field or an unknown task are rejected individually.
+     * If the same (taskId, date) appears more than once, the last entry wins.
+     * Each affected date is queued for recalculation once.
+     */
+    public List<BatchStatusResultDTO> markStatusBatch(BatchStatusRequest request) {
+        List<BatchStatusRequest.Entry> entries = request.getEntries();
+        List<BatchStatusResultDTO> results = new ArrayList<>(entries.size());
+
+        // Validate every referenced task against the in-memory catalog
+        TaskCatalog.Snapshot catalog = taskCatalog.snapshot();
+
+        // (taskId, date) → index of the last entry for that pair
+        Map<String, Integer> lastEntryByKey = new LinkedHashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            BatchStatusRequest.Entry entry = entries.get(i);
+            String error = null;
+            if (!StringUtils.hasText(entry.getTaskId())) {
+                error = "taskId is required";
+            } else if (entry.getDate() == null) {
+                error = "date is required";
+            } else if (!catalog.contains(entry.getTaskId())) {
+                error = "Task not found with id: " + entry.getTaskId();
+            } else {
+                lastEntryByKey.put(entry.getTaskId() + "|" + entry.getDate(), i);
+            }
+            results.add(BatchStatusResultDTO.builder()
+                .index(i)
+                .taskId(entry.getTaskId())
+                .date(entry.getDate())
+                .completed(entry.isCompleted())
+                .success(error == null)
+                .error(error)
+                .build());
+        }
+
+        if (lastEntryByKey.isEmpty()) {
+            return results;
+        }
+
+        String userId = UserScope.currentUserId();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TaskStatus.class);
+        List<Integer> opToEntry = new ArrayList<>(lastEntryByKey.values());
+        for (int entryIndex : opToEntry) {
+            BatchStatusRequest.Entry entry = entries.get(entryIndex);
+            bulk.upsert(
+                new Query(Criteria.where("userId").is(userId)
+                    .and("taskId").is(entry.getTaskId()).and("date").is(entry.getDate())),
+                new Update().set("completed", entry.isCompleted()));
+        }
+
+        List<StatusWriteLocks.Key> keys = opToEntry.stream()
+            .map(entries::get)
+            .map(entry -> new StatusWriteLocks.Key(userId, entry.getTaskId(), entry.getDate()))
+            .toList();
+        writeLocks.withLocks(keys, () -> {
+            executeBatch(bulk, entries, opToEntry, results);
+            for (int entryIndex : opToEntry) {
+                if (results.get(entryIndex).isSuccess()) {
+                    BatchStatusRequest.Entry entry = entries.get(entryIndex);
+                    publishStatusChange(entry.getTaskId(), entry.getDate(), entry.isCompleted());
+                }
+            }
+            return null;
+        });
+
+        Set<LocalDate> affectedDates = new TreeSet<>();
+        for (BatchStatusResultDTO result : results) {
+            if (result.isSuccess()) {
+                affectedDates.add(result.getDate());
+            }
+        }
+        affectedDates.forEach(summaryRecomputeQueue::markDirty);
+        log.info("Applied batch of {} status entries across {} date(s)", entries.size(), affectedDates.size());
+
+        return results;
+    }
+
+    /**
+     * Runs the bulk upsert and marks the entries of failed pairs in the results. An upsert
+     * that lost an insert race to another writer (E11000) is retried through the single
+     * upsert path, which then finds the record and updates it.
+     */
+    private void executeBatch(BulkOperations bulk, List<BatchStatusRequest.Entry> entries,
+                              List<Integer> opToEntry, List<BatchStatusResultDTO> results) {
+        try {
+            bulk.execute();
+        } catch (BulkOperationException ex) {
+            for (BulkWriteError writeError : ex.getErrors()) {
+                BatchStatusRequest.Entry failed = entries.get(opToEntry.get(writeError.getIndex()));
+                String error = writeError.getMessage();
+                if (writeError.getCode() == DUPLICATE_KEY) {
+                    try {
+                        upsertStatus(failed.getTaskId(), failed.getDate(), failed.isCompleted());
+                        continue;
+                    } catch (RuntimeException retryEx) {
+                        error = retryEx.getMessage();
+                    }
+                }
+                String key = failed.getTaskId() + "|" + failed.getDate();
+                // Mark every entry for the failed pair, including superseded duplicates
+                for (BatchStatusResultDTO result : results) {
+                    if (result.isSuccess() && key.equals(result.getTaskId() + "|" + result.getDate())) {
+                        result.setSuccess(false);
+                        result.setError(error);
+                    }
+                }
+            }
+        }
+    }
+
     public List<TaskWithStatusDTO> getTasksWithStatus(LocalDate date) {
-        List<Task> allTasks = taskRepository.findAll();
+        List<Task> allTasks = taskCatalog.all();
         
         // Filter tasks: Daily and Weekly appear every day. One-time tasks only on their scheduled date.
         List<Task> filteredTasks = allTasks.stream()
             .filter(t -> !"One-time".equalsIgnoreCase(t.getFrequency()) || date.equals(t.getScheduledDate()))
             .toList();
 
-        List<TaskStatus> statuses = taskStatusRepository.findByDate(date);
+        List<TaskStatus> statuses = taskStatusRepository.findByUserIdAndDate(UserScope.currentUserId(), date);
 
         // Build lookup map: taskId → completed
         Map<String, Boolean> statusMap = statuses.stream()
@@ -98,4 +259,78 @@ public class TaskStatusService {
             })
             .toList();
     }
+
+    /**
+     * Completion status for every task across [from, to] in one query.
+     * Applies the same visibility rules as getTasksWithStatus: One-time tasks only
+     * appear on their scheduled date, and globally COMPLETED tasks count as done
+     * on every day they appear.
+     */
+    public TaskStatusRangeDTO getStatusRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' cannot be after 'to'");
+        }
+        long span = ChronoUnit.DAYS.between(from, to) + 1;
+        if (span > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Range cannot exceed " + MAX_RANGE_DAYS + " days");
+        }
+        int days = (int) span;
+
+        // taskId → bitmap of days with a completed TaskStatus
+        Map<String, byte[]> completedBits = new HashMap<>();
+        for (TaskStatus status : taskStatusRepository.findByUserIdAndDateBetween(
+                UserScope.currentUserId(), Range.closed(from, to))) {
+            if (status.isCompleted()) {
+                int day = (int) ChronoUnit.DAYS.between(from, status.getDate());
+                byte[] bits = completedBits.computeIfAbsent(status.getTaskId(), id -> new byte[(days + 7) / 8]);
+                bits[day >> 3] |= (byte) (1 << (day & 7));
+            }
+        }
+
+        List<TaskStatusRangeDTO.TaskRange> tasks = new ArrayList<>();
+        for (Task task : taskCatalog.all()) {
+            boolean oneTime = "One-time".equalsIgnoreCase(task.getFrequency());
+            if (oneTime && (task.getScheduledDate() == null
+                    || task.getScheduledDate().isBefore(from) || task.getScheduledDate().isAfter(to))) {
+                continue;
+            }
+
+            byte[] bits = new byte[(days + 7) / 8];
+            byte[] done = completedBits.get(task.getId());
+            boolean globallyCompleted = "COMPLETED".equals(task.getStatus());
+            for (int day = 0; day < days; day++) {
+                if (!DailySummaryService.countsOn(task, from.plusDays(day))) {
+                    continue;
+                }
+                boolean set = globallyCompleted || (done != null && (done[day >> 3] & (1 << (day & 7))) != 0);
+                if (set) {
+                    bits[day >> 3] |= (byte) (1 << (day & 7));
+                }
+            }
+
+            int completedDays = 0;
+            for (byte b : bits) {
+                completedDays += Integer.bitCount(b & 0xFF);
+            }
+
+            tasks.add(TaskStatusRangeDTO.TaskRange.builder()
+                .taskId(task.getId())
+                .title(task.getTitle())
+                .category(task.getCategory())
+                .frequency(task.getFrequency())
+                .scheduledDate(task.getScheduledDate())
+                .status(task.getStatus())
+                .priority(task.getPriority())
+                .completedBitmap(Base64.getEncoder().encodeToString(bits))
+                .completedDays(completedDays)
+                .build());
+        }
+
+        return TaskStatusRangeDTO.builder()
+            .from(from)
+            .to(to)
+            .days(days)
+            .tasks(tasks)
+            .build();
+    }
 }
@@ -0,0 +1,257 @@
+package com.growthtracker.service;
+
+import com.growthtracker.dto.TimeSpentAnalyticsDTO;
+import com.growthtracker.model.Task;
+import com.growthtracker.model.TimeSpentSketch;
+import com.growthtracker.repository.TimeSpentSketchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Time-spent analytics backed by persisted histogram sketches.
+ *
+ * Every completion with a timeSpent is added to three sketches — "all", its category
+ * and the week it was completed in — with one unordered bulk of $inc upserts.
+ * Reads load only the sketches they need and merge them; completed tasks are never
+ * rescanned except by an explicit rebuild.
+ *
+ * Sketches are per user: a task's sketches are keyed by its owner, reads use the
+ * current request's user.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TimeSpentAnalyticsService {
+
+    private final TimeSpentSketchRepository timeSpentSketchRepository;
+    private final MongoTemplate mongoTemplate;
+
+    private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ISO_LOCAL_DATE;
+    private static final String ALL = "all";
+    private static final String CATEGORY_PREFIX = "category:";
+    private static final String WEEK_PREFIX = "week:";
+
+    /** Longest range of weekly sketches served per request */
+    private static final int MAX_WEEKS = 157;
+
+    /** Sketches replaced or deleted per round trip during a rebuild */
+    private static final int REBUILD_BATCH = 1000;
+
+    /** Records a newly completed task. */
+    public void onCompleted(Task task) {
+        record(task, task.getCategory(), 1);
+    }
+
+    /** Removes a completed task that is being deleted. */
+    public void onRemoved(Task task) {
+        record(task, task.getCategory(), -1);
+    }
+
+    /** Moves a completed task's time from its old category sketch to its new one. */
+    public void onCategoryChanged(Task task, String oldCategory) {
+        if (!isRecorded(task) || Objects.equals(oldCategory, task.getCategory())) {
+            return;
+        }
+        int value = task.getTimeSpent();
+        String userId = task.getUserId();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TimeSpentSketch.class);
+        bulk.upsert(byId(userId, CATEGORY_PREFIX + oldCategory), increment(userId, value, -1));
+        bulk.upsert(byId(userId, CATEGORY_PREFIX + task.getCategory()), increment(userId, value, 1));
+        bulk.execute();
+    }
+
+    public TimeSpentAnalyticsDTO getAnalytics(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' cannot be after 'to'");
+        }
+        LocalDate firstWeek = weekOf(from);
+        if (ChronoUnit.WEEKS.between(firstWeek, to) + 1 > MAX_WEEKS) {
+            throw new IllegalArgumentException("Range cannot exceed " + MAX_WEEKS + " weeks");
+        }
+
+        String userId = UserScope.currentUserId();
+        // week start → sketch id
+        Map<String, String> weekIds = new LinkedHashMap<>();
+        for (LocalDate week = firstWeek; !week.isAfter(to); week = week.plusWeeks(1)) {
+            String start = week.format(DATE_FMT);
+            weekIds.put(start, UserScope.key(userId, WEEK_PREFIX + start));
+        }
+        Map<String, TimeSpentSketch> weekSketches = new HashMap<>();
+        timeSpentSketchRepository.findAllById(weekIds.values()).forEach(s -> weekSketches.put(s.getId(), s));
+
+        TimeSpentHistogram range = new TimeSpentHistogram();
+        Map<String, TimeSpentAnalyticsDTO.Stats> weekly = new LinkedHashMap<>();
+        weekIds.forEach((start, weekId) -> {
+            TimeSpentHistogram week = new TimeSpentHistogram();
+            week.merge(weekSketches.get(weekId));
+            range.merge(weekSketches.get(weekId));
+            weekly.put(start, toStats(week));
+        });
+
+        String categoryPrefix = UserScope.key(userId, CATEGORY_PREFIX);
+        Map<String, TimeSpentAnalyticsDTO.Stats> byCategory = new TreeMap<>();
+        for (TimeSpentSketch sketch : timeSpentSketchRepository.findByUserIdAndIdStartingWith(userId, categoryPrefix)) {
+            if (sketch.getCount() > 0) {
+                TimeSpentHistogram histogram = new TimeSpentHistogram();
+                histogram.merge(sketch);
+                byCategory.put(sketch.getId().substring(categoryPrefix.length()), toStats(histogram));
+            }
+        }
+
+        TimeSpentHistogram overall = new TimeSpentHistogram();
+        overall.merge(timeSpentSketchRepository.findById(UserScope.key(userId, ALL)).orElse(null));
+
+        return TimeSpentAnalyticsDTO.builder()
+            .from(from)
+            .to(to)
+            .overall(toStats(overall))
+            .range(toStats(range))
+            .byCategory(byCategory)
+            .weekly(weekly)
+            .build();
+    }
+
+    /**
+     * Rebuilds every user's sketches from the completed tasks in one streamed pass.
+     * Used to backfill sketches for tasks completed before they existed.
+     *
+     * Rebuilt sketches are written with replaceOne upserts, and only then are sketches
+     * whose scope no longer has any completion deleted, so there is no moment without
+     * sketches. A completion recorded between the scan and the replace of its sketch
+     * would still be overwritten; the rebuild runs as a startup migration, before
+     * requests are served.
+     */
+    public void rebuild() {
+        Query completed = new Query(Criteria.where("status").is("COMPLETED").and("timeSpent").ne(null));
+        completed.fields().include("userId").include("category").include("timeSpent").include("completedAt");
+
+        Map<String, TimeSpentSketch> sketches = new HashMap<>();
+        try (Stream<Task> tasks = mongoTemplate.stream(completed, Task.class)) {
+            tasks.filter(this::isRecorded).forEach(task -> {
+                for (String scope : scopesOf(task, task.getCategory())) {
+                    String id = UserScope.key(task.getUserId(), scope);
+                    add(sketches.computeIfAbsent(id, key -> TimeSpentSketch.builder()
+                            .id(key).userId(task.getUserId()).build()),
+                        task.getTimeSpent());
+                }
+            });
+        }
+
+        BulkOperations replace = null;
+        int batched = 0;
+        for (TimeSpentSketch sketch : sketches.values()) {
+            if (replace == null) {
+                replace = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TimeSpentSketch.class);
+            }
+            replace.replaceOne(new Query(Criteria.where("_id").is(sketch.getId())), sketch,
+                FindAndReplaceOptions.options().upsert());
+            if (++batched == REBUILD_BATCH) {
+                replace.execute();
+                replace = null;
+                batched = 0;
+            }
+        }
+        if (replace != null) {
+            replace.execute();
+        }
+
+        List<String> stale = new ArrayList<>();
+        Query all = new Query();
+        all.fields().include("_id");
+        try (Stream<TimeSpentSketch> existing = mongoTemplate.stream(all, TimeSpentSketch.class)) {
+            existing.map(TimeSpentSketch::getId).filter(id -> !sketches.containsKey(id)).forEach(stale::add);
+        }
+        for (int from = 0; from < stale.size(); from += REBUILD_BATCH) {
+            List<String> ids = stale.subList(from, Math.min(stale.size(), from + REBUILD_BATCH));
+            mongoTemplate.remove(new Query(Criteria.where("_id").in(ids)), TimeSpentSketch.class);
+        }
+        log.info("Rebuilt {} time-spent sketches, removed {} stale ones", sketches.size(), stale.size());
+    }
+
+    private boolean isRecorded(Task task) {
+        return task.getTimeSpent() != null && task.getCompletedAt() != null;
+    }
+
+    private void record(Task task, String category, int delta) {
+        if (!isRecorded(task)) {
+            return;
+        }
+        int value = task.getTimeSpent();
+        String userId = task.getUserId();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TimeSpentSketch.class);
+        for (String scope : scopesOf(task, category)) {
+            bulk.upsert(byId(userId, scope), increment(userId, value, delta));
+        }
+        bulk.execute();
+    }
+
+    private List<String> scopesOf(Task task, String category) {
+        return List.of(
+            ALL,
+            CATEGORY_PREFIX + category,
+            WEEK_PREFIX + weekOf(task.getCompletedAt().toLocalDate()).format(DATE_FMT));
+    }
+
+    private static Query byId(String userId, String scope) {
+        return new Query(Criteria.where("_id").is(UserScope.key(userId, scope)).and("userId").is(userId));
+    }
+
+    /** $inc of one bucket plus count/total; min/max only move on additions. */
+    private static Update increment(String userId, int value, int delta) {
+        Update update = new Update()
+            .setOnInsert("userId", userId)
+            .inc("buckets." + TimeSpentHistogram.bucketOf(value), delta)
+            .inc("count", delta)
+            .inc("total", (long) delta * value);
+        if (delta > 0) {
+            update.min("min", value).max("max", value);
+        }
+        return update;
+    }
+
+    private static void add(TimeSpentSketch sketch, int value) {
+        sketch.getBuckets().merge(String.valueOf(TimeSpentHistogram.bucketOf(value)), 1L, Long::sum);
+        sketch.setCount(sketch.getCount() + 1);
+        sketch.setTotal(sketch.getTotal() + value);
+        sketch.setMin(sketch.getMin() == null ? value : Math.min(sketch.getMin(), value));
+        sketch.setMax(sketch.getMax() == null ? value : Math.max(sketch.getMax(), value));
+    }
+
+    private static LocalDate weekOf(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static TimeSpentAnalyticsDTO.Stats toStats(TimeSpentHistogram histogram) {
+        return TimeSpentAnalyticsDTO.Stats.builder()
+            .count(histogram.count())
+            .total(histogram.total())
+            .mean(Math.round(histogram.mean() * 100.0) / 100.0)
+            .min(histogram.min())
+            .max(histogram.max())
+            .p50(histogram.percentile(0.50))
+            .p90(histogram.percentile(0.90))
+            .p99(histogram.percentile(0.99))
+            .build();
+    }
+}
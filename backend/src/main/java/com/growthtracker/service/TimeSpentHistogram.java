@@ -0,0 +1,149 @@
+package com.growthtracker.service;
+
+import com.growthtracker.model.TimeSpentSketch;
+
+import java.util.Map;
+
+/**
+ * Log-linear histogram over non-negative integers with a fixed number of buckets.
+ *
+ * Values below 16 get an exact bucket; above that, every power of two is split into
+ * 8 sub-buckets, so a bucket's width is at most 12.5% of its value. Any int fits in
+ * BUCKETS slots, and two histograms merge by adding their counts.
+ *
+ * A sketch's min and max only ever widen, since a removal cannot tell what the next
+ * smallest or largest value is. min() and max() therefore tighten them to the lowest
+ * and highest non-empty bucket, so a removed extreme stops showing after its bucket
+ * empties (within a bucket it can still linger, by at most the bucket width).
+ */
+final class TimeSpentHistogram {
+
+    private static final int EXACT = 16;
+    private static final int SUB_BUCKETS = 8;
+    static final int BUCKETS = EXACT + (31 - 4) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long total;
+    private Integer min;
+    private Integer max;
+
+    static int bucketOf(int value) {
+        int v = Math.max(0, value);
+        if (v < EXACT) {
+            return v;
+        }
+        int exponent = 31 - Integer.numberOfLeadingZeros(v);
+        int sub = (v >> (exponent - 3)) & (SUB_BUCKETS - 1);
+        return EXACT + (exponent - 4) * SUB_BUCKETS + sub;
+    }
+
+    static int lowerBound(int bucket) {
+        if (bucket < EXACT) {
+            return bucket;
+        }
+        int exponent = (bucket - EXACT) / SUB_BUCKETS + 4;
+        int sub = (bucket - EXACT) % SUB_BUCKETS;
+        return (SUB_BUCKETS + sub) << (exponent - 3);
+    }
+
+    static int upperBound(int bucket) {
+        if (bucket < EXACT) {
+            return bucket;
+        }
+        int exponent = (bucket - EXACT) / SUB_BUCKETS + 4;
+        return (int) Math.min(Integer.MAX_VALUE, (long) lowerBound(bucket) + (1L << (exponent - 3)) - 1);
+    }
+
+    /** Adds a persisted sketch into this histogram. */
+    void merge(TimeSpentSketch sketch) {
+        if (sketch == null || sketch.getCount() <= 0) {
+            return;
+        }
+        for (Map.Entry<String, Long> bucket : sketch.getBuckets().entrySet()) {
+            counts[Integer.parseInt(bucket.getKey())] += bucket.getValue();
+        }
+        count += sketch.getCount();
+        total += sketch.getTotal();
+        if (sketch.getMin() != null) {
+            min = min == null ? sketch.getMin() : Math.min(min, sketch.getMin());
+        }
+        if (sketch.getMax() != null) {
+            max = max == null ? sketch.getMax() : Math.max(max, sketch.getMax());
+        }
+    }
+
+    long count() {
+        return count;
+    }
+
+    long total() {
+        return total;
+    }
+
+    Integer min() {
+        int lowest = firstBucket();
+        if (lowest < 0) {
+            return null;
+        }
+        return min == null ? lowerBound(lowest) : Math.max(min, lowerBound(lowest));
+    }
+
+    Integer max() {
+        int highest = lastBucket();
+        if (highest < 0) {
+            return null;
+        }
+        return max == null ? upperBound(highest) : Math.min(max, upperBound(highest));
+    }
+
+    private int firstBucket() {
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] > 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int lastBucket() {
+        for (int i = BUCKETS - 1; i >= 0; i--) {
+            if (counts[i] > 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    double mean() {
+        return count == 0 ? 0.0 : (double) total / count;
+    }
+
+    /**
+     * Estimated value at quantile q (0..1): the midpoint of the bucket holding that
+     * rank, clamped to min() and max(). Null when empty.
+     */
+    Integer percentile(double q) {
+        if (count == 0) {
+            return null;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * count));
+        Integer low = min();
+        Integer high = max();
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                int estimate = (int) (((long) lowerBound(i) + upperBound(i)) / 2);
+                if (low != null) {
+                    estimate = Math.max(estimate, low);
+                }
+                if (high != null) {
+                    estimate = Math.min(estimate, high);
+                }
+                return estimate;
+            }
+        }
+        return high;
+    }
+}
@@ -0,0 +1,166 @@
+package com.growthtracker.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded, lazily loaded per-user state behind the in-memory read models
+ * (TaskCatalog, CompletionBitmapIndex, WeeklyAnalyticsView).
+ *
+ * - A user's value is loaded from Mongo on first access, on the calling thread and
+ *   outside any lock; concurrent first accesses share one load.
+ * - Changes are applied with update(), atomically per user; users that are not loaded
+ *   are skipped, since their next load reads the change from Mongo. A change that lands
+ *   while a load is running makes that load read again, so it cannot be lost.
+ * - Values expire after a time to live, which bounds how long writes made by other
+ *   instances stay invisible here.
+ * - At most maxUsers values are kept; loading one more evicts the least recently used.
+ */
+@Slf4j
+final class UserCache<V> {
+
+    /** Reads made by a load before it gives up waiting for a quiet moment */
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+
+    private final String name;
+    private final int maxUsers;
+    private final long ttlNanos;
+    private final Function<String, V> loader;
+
+    private final Map<String, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Map<String, Load<V>> loads = new ConcurrentHashMap<>();
+
+    private static final class Entry<V> {
+        final V value;
+        final long loadedAt;
+        volatile long lastAccess;
+
+        Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+            this.lastAccess = loadedAt;
+        }
+    }
+
+    private static final class Load<V> {
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        /** Set by update() when the user changed while this load was reading */
+        volatile boolean dirty;
+    }
+
+    UserCache(String name, int maxUsers, Duration ttl, Function<String, V> loader) {
+        this.name = name;
+        this.maxUsers = maxUsers;
+        this.ttlNanos = ttl.toNanos();
+        this.loader = loader;
+    }
+
+    /** The user's value, loading it if it is absent or expired. */
+    V get(String userId) {
+        long now = System.nanoTime();
+        Entry<V> entry = entries.get(userId);
+        if (entry != null && now - entry.loadedAt < ttlNanos) {
+            entry.lastAccess = now;
+            return entry.value;
+        }
+
+        Load<V> load = new Load<>();
+        Load<V> running = loads.putIfAbsent(userId, load);
+        if (running != null) {
+            return running.result.join();
+        }
+        try {
+            V value = loadQuietly(userId, load);
+            load.result.complete(value);
+            return value;
+        } catch (RuntimeException ex) {
+            load.result.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            loads.remove(userId, load);
+        }
+    }
+
+    /**
+     * Applies a change to the user's loaded value. The operator runs while the user's
+     * entry is locked, so it must be quick and must not do I/O; it may mutate the value
+     * in place (returning it) or return a replacement.
+     */
+    void update(String userId, UnaryOperator<V> change) {
+        entries.compute(userId, (key, entry) -> {
+            markLoadDirty(userId);
+            if (entry == null) {
+                return null;
+            }
+            V next = change.apply(entry.value);
+            if (next == entry.value) {
+                return entry;
+            }
+            Entry<V> replaced = new Entry<>(next, entry.loadedAt);
+            replaced.lastAccess = entry.lastAccess;
+            return replaced;
+        });
+    }
+
+    /** Drops the user's value; the next access loads it again. */
+    void invalidate(String userId) {
+        entries.compute(userId, (key, entry) -> {
+            markLoadDirty(userId);
+            return null;
+        });
+    }
+
+    /** Drops every loaded value, e.g. after a migration rewrote the underlying data. */
+    void invalidateAll() {
+        entries.keySet().forEach(this::invalidate);
+    }
+
+    /** Called under the user's entry lock, which is also where a finished load installs. */
+    private void markLoadDirty(String userId) {
+        Load<V> load = loads.get(userId);
+        if (load != null) {
+            load.dirty = true;
+        }
+    }
+
+    private V loadQuietly(String userId, Load<V> load) {
+        for (int attempt = 1; ; attempt++) {
+            load.dirty = false;
+            V value = loader.apply(userId);
+            boolean lastAttempt = attempt == MAX_LOAD_ATTEMPTS;
+            boolean[] installed = new boolean[1];
+            entries.compute(userId, (key, current) -> {
+                if (load.dirty && !lastAttempt) {
+                    return current;
+                }
+                installed[0] = true;
+                long now = System.nanoTime();
+                // A load that never settled is stored already expired, so the next access reloads
+                return new Entry<>(value, load.dirty ? now - ttlNanos : now);
+            });
+            if (installed[0]) {
+                evictIfFull();
+                return value;
+            }
+            log.debug("{} of {} changed while loading, reading again", name, userId);
+        }
+    }
+
+    private void evictIfFull() {
+        while (entries.size() > maxUsers) {
+            entries.entrySet().stream()
+                .min(Comparator.comparingLong(e -> e.getValue().lastAccess))
+                .ifPresent(oldest -> {
+                    entries.remove(oldest.getKey(), oldest.getValue());
+                    log.debug("Evicted {} of {}", name, oldest.getKey());
+                });
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.growthtracker.service;
+
+import java.util.regex.Pattern;
+
+/**
+ * The user (tenant) a request acts for, and how per-user keys are formed.
+ *
+ * UserIdFilter binds the user from the required X-User-Id header for the duration of
+ * a request; that header is only authenticated when a signing secret is configured
+ * (see UserIdFilter), otherwise the scoping separates data but does not protect it. Work handed to other threads (summary recomputes) carries the user id
+ * explicitly instead; startup runners act for DEFAULT_USER_ID, which owns the data
+ * written before tenancy.
+ *
+ * Documents keyed by something other than an ObjectId (dailySummary by date,
+ * streakRecord, timeSpentSketch by scope) embed the user id in their _id as
+ * "userId:key". User ids cannot contain the separator, so keys of different users
+ * never collide.
+ */
+public final class UserScope {
+
+    public static final String DEFAULT_USER_ID = "default";
+
+    /** Separates the user id from the key in per-user document ids */
+    public static final String KEY_SEPARATOR = ":";
+
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9_.@-]{1,64}");
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private UserScope() {
+    }
+
+    /** User ids are 1-64 of [A-Za-z0-9_.@-], so they never contain KEY_SEPARATOR. */
+    public static boolean isValid(String userId) {
+        return userId != null && VALID_ID.matcher(userId).matches();
+    }
+
+    /** User of the current request, or the default user outside a request. */
+    public static String currentUserId() {
+        String userId = CURRENT.get();
+        return userId != null ? userId : DEFAULT_USER_ID;
+    }
+
+    public static void bind(String userId) {
+        CURRENT.set(userId);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /** Document key for a per-user value: "userId:key". */
+    public static String key(String userId, String key) {
+        return userId + KEY_SEPARATOR + key;
+    }
+}
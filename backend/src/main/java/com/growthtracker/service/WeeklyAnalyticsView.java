@@ -0,0 +1,289 @@
+package com.growthtracker.service;
+
+import com.growthtracker.dto.WeeklyAnalyticsDTO;
+import com.growthtracker.model.DailySummary;
+import com.growthtracker.model.StreakRecord;
+import com.growthtracker.model.Task;
+import com.growthtracker.model.TaskStatus;
+import com.growthtracker.repository.StreakRecordRepository;
+import com.growthtracker.repository.TaskStatusRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Materialized projection behind GET /api/analytics/weekly.
+ *
+ * Holds the last 7 days in memory — each day's completion percentage, today's streak
+ * and a 7-bit completion mask per task — and is updated incrementally as TaskStatus
+ * and DailySummary documents change. The built DTO is cached until something changes,
+ * so a read is constant time.
+ *
+ * The window rolls over lazily: the first access on a new day reloads it from Mongo
+ * with two small range queries.
+ *
+ * There is one window per user, loaded on first access into a bounded UserCache and
+ * expiring after user-cache.ttl; reads use the current request's user (UserScope),
+ * summary writes the summary's own userId. Each window has its own monitor and Mongo
+ * is only read while loading, outside any lock, so users never wait for each other.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WeeklyAnalyticsView {
+
+    private final TaskCatalog taskCatalog;
+    private final TaskStatusRepository taskStatusRepository;
+    private final StreakRecordRepository streakRecordRepository;
+    private final MongoTemplate mongoTemplate;
+
+    private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ISO_LOCAL_DATE;
+    private static final int WINDOW_DAYS = 7;
+
+    /** Source of window versions; global, so a reloaded window never reuses an old version */
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    @Value("${user-cache.max-users:1000}")
+    private int maxUsers;
+
+    @Value("${user-cache.ttl:5m}")
+    private Duration ttl;
+
+    /** userId → that user's window */
+    private UserCache<UserWindow> windows;
+
+    /**
+     * Point-in-time copy of the window. Arrays are indexed like the view
+     * (0 = anchor - 6, 6 = anchor); mask bit i is window day i.
+     */
+    public record Window(LocalDate anchor, double[] dailyPct, int[] dailyStreak, boolean[] hasSummary,
+                         Map<String, Integer> completionMasks, long version) {
+    }
+
+    /** One user's window. All access is guarded by the window's own monitor. */
+    private static final class UserWindow {
+
+        final String userId;
+
+        /** Last day of the window */
+        final LocalDate anchor;
+
+        /** Completion percentage per day, index 0 = anchor - 6, index 6 = anchor */
+        final double[] dailyPct = new double[WINDOW_DAYS];
+
+        /** Streak per day and whether a summary exists for that day, same indexing */
+        final int[] dailyStreak = new int[WINDOW_DAYS];
+        final boolean[] hasSummary = new boolean[WINDOW_DAYS];
+        int currentStreak;
+        int longestStreak;
+
+        /** taskId → bit i set when the task was completed on window day i */
+        final Map<String, Integer> completionMasks = new HashMap<>();
+
+        WeeklyAnalyticsDTO cached;
+        TaskCatalog.Snapshot cachedCatalog;
+
+        /** Bumped on every change to the window, so dependent caches can detect staleness */
+        long version;
+
+        UserWindow(String userId, LocalDate anchor) {
+            this.userId = userId;
+            this.anchor = anchor;
+        }
+
+        void changed() {
+            cached = null;
+            version = VERSIONS.incrementAndGet();
+        }
+
+        void applySummary(int day, DailySummary summary) {
+            dailyPct[day] = summary.getCompletionPercentage();
+            dailyStreak[day] = summary.getStreak();
+            hasSummary[day] = true;
+            if (day == WINDOW_DAYS - 1) {
+                currentStreak = summary.getStreak();
+            }
+        }
+
+        /** Window index of the date, or -1 if it falls outside the window. */
+        int dayIndex(LocalDate date) {
+            long offset = ChronoUnit.DAYS.between(date, anchor);
+            return (offset < 0 || offset >= WINDOW_DAYS) ? -1 : (int) (WINDOW_DAYS - 1 - offset);
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        windows = new UserCache<>("Weekly analytics window", maxUsers, ttl, this::load);
+    }
+
+    /** Returns the weekly analytics for the window ending today. */
+    public WeeklyAnalyticsDTO get() {
+        UserWindow w = current();
+        TaskCatalog.Snapshot catalog = taskCatalog.snapshot(w.userId);
+        synchronized (w) {
+            if (w.cached == null || w.cachedCatalog != catalog) {
+                w.cached = build(w, catalog);
+                w.cachedCatalog = catalog;
+            }
+            return w.cached;
+        }
+    }
+
+    /** Returns a copy of the current window, rolled to today. */
+    public Window window() {
+        UserWindow w = current();
+        synchronized (w) {
+            return new Window(w.anchor, w.dailyPct.clone(), w.dailyStreak.clone(), w.hasSummary.clone(),
+                Map.copyOf(w.completionMasks), w.version);
+        }
+    }
+
+    /** Current change counter, rolled to today. */
+    public long version() {
+        UserWindow w = current();
+        synchronized (w) {
+            return w.version;
+        }
+    }
+
+    /** Applies a single TaskStatus write of the current user. */
+    public void onStatusChanged(String taskId, LocalDate date, boolean completed) {
+        windows.update(UserScope.currentUserId(), w -> {
+            synchronized (w) {
+                int day = w.dayIndex(date);
+                if (day >= 0) {
+                    int mask = w.completionMasks.getOrDefault(taskId, 0);
+                    int next = completed ? (mask | (1 << day)) : (mask & ~(1 << day));
+                    if (next != mask) {
+                        w.completionMasks.put(taskId, next);
+                        w.changed();
+                    }
+                }
+            }
+            return w;
+        });
+    }
+
+    /** Applies a saved or rewritten DailySummary. */
+    public void onSummarySaved(DailySummary summary) {
+        windows.update(summary.getUserId(), w -> {
+            synchronized (w) {
+                w.longestStreak = Math.max(w.longestStreak, summary.getLongestStreak());
+                int day = w.dayIndex(LocalDate.parse(summary.getDate(), DATE_FMT));
+                if (day >= 0) {
+                    w.applySummary(day, summary);
+                }
+                w.changed();
+            }
+            return w;
+        });
+    }
+
+    /** Drops a deleted task's completions (its status history is deleted with it). */
+    public void onTaskDeleted(String taskId) {
+        windows.update(UserScope.currentUserId(), w -> {
+            synchronized (w) {
+                if (w.completionMasks.remove(taskId) != null) {
+                    w.changed();
+                }
+            }
+            return w;
+        });
+    }
+
+    /** Forces a reload of the user's window from Mongo on next access, e.g. after a bulk rebuild. */
+    public void invalidate(String userId) {
+        windows.invalidate(userId);
+    }
+
+    /** The current user's window; a window loaded on an earlier day is reloaded first. */
+    private UserWindow current() {
+        String userId = UserScope.currentUserId();
+        UserWindow w = windows.get(userId);
+        while (!LocalDate.now().equals(w.anchor)) {
+            windows.invalidate(userId);
+            w = windows.get(userId);
+        }
+        return w;
+    }
+
+    /** Builds a user's window ending today with two small range queries. */
+    private UserWindow load(String userId) {
+        LocalDate today = LocalDate.now();
+        UserWindow w = new UserWindow(userId, today);
+        LocalDate from = today.minusDays(WINDOW_DAYS - 1);
+
+        Query window = new Query(Criteria.where("userId").is(userId)
+            .and("date").gte(from.format(DATE_FMT)).lte(today.format(DATE_FMT)));
+        for (DailySummary summary : mongoTemplate.find(window, DailySummary.class)) {
+            w.applySummary(w.dayIndex(LocalDate.parse(summary.getDate(), DATE_FMT)), summary);
+        }
+
+        for (TaskStatus status : taskStatusRepository.findByUserIdAndDateBetween(userId, Range.closed(from, today))) {
+            if (status.isCompleted()) {
+                w.completionMasks.merge(status.getTaskId(), 1 << w.dayIndex(status.getDate()), (a, b) -> a | b);
+            }
+        }
+
+        w.longestStreak = streakRecordRepository.findById(UserScope.key(userId, StreakRecord.GLOBAL_ID))
+            .map(StreakRecord::getLongestStreak)
+            .orElse(0);
+        w.changed();
+        log.debug("Weekly analytics window of {} loaded for {}", userId, today);
+        return w;
+    }
+
+    private WeeklyAnalyticsDTO build(UserWindow w, TaskCatalog.Snapshot catalog) {
+        List<WeeklyAnalyticsDTO.DailyProgress> dailyProgress = new ArrayList<>(WINDOW_DAYS);
+        double sum = 0;
+        for (int i = 0; i < WINDOW_DAYS; i++) {
+            String dayStr = w.anchor.minusDays(WINDOW_DAYS - 1 - i).format(DATE_FMT);
+            dailyProgress.add(new WeeklyAnalyticsDTO.DailyProgress(dayStr, w.dailyPct[i]));
+            sum += w.dailyPct[i];
+        }
+        double weeklyAverage = sum / WINDOW_DAYS;
+
+        // Strongest: most completions; weakest: fewest (could be 0). First task wins ties.
+        String strongestTask = "N/A";
+        String weakestTask = "N/A";
+        int best = -1;
+        int worst = Integer.MAX_VALUE;
+        for (Task task : catalog.all()) {
+            int count = Integer.bitCount(w.completionMasks.getOrDefault(task.getId(), 0));
+            if (count > best) {
+                best = count;
+                strongestTask = task.getTitle();
+            }
+            if (count < worst) {
+                worst = count;
+                weakestTask = task.getTitle();
+            }
+        }
+
+        return WeeklyAnalyticsDTO.builder()
+            .weeklyAverage(Math.round(weeklyAverage * 100.0) / 100.0)
+            .currentStreak(w.currentStreak)
+            .longestStreak(w.longestStreak)
+            .weakestTask(weakestTask)
+            .strongestTask(strongestTask)
+            .dailyProgress(dailyProgress)
+            .build();
+    }
+}
@@ -0,0 +1,27 @@
+package com.growthtracker;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Base class for tests that need the full application context against a database.
+ * Runs an in-memory MongoDB wire-protocol server (mongo-java-server) shared by all
+ * such tests in the JVM, so no external MongoDB is required.
+ */
+@SpringBootTest
+public abstract class MongoIntegrationTest {
+
+    private static final MongoServer SERVER = new MongoServer(new MemoryBackend());
+    private static final InetSocketAddress ADDRESS = SERVER.bind();
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri",
+            () -> "mongodb://" + ADDRESS.getHostString() + ":" + ADDRESS.getPort() + "/growth_tracker_test");
+    }
+}
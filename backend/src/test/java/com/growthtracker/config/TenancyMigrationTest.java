@@ -0,0 +1,40 @@
+package com.growthtracker.config;
+
+import com.growthtracker.MongoIntegrationTest;
+import com.growthtracker.model.DailySummary;
+import com.growthtracker.service.UserScope;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TenancyMigrationTest extends MongoIntegrationTest {
+
+    @Autowired
+    private TenancyMigration tenancyMigration;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    void rekeysBareSummariesOfTheDefaultUser() {
+        String collection = mongoTemplate.getCollectionName(DailySummary.class);
+        mongoTemplate.getCollection(collection).insertOne(new Document("_id", "1999-01-01")
+            .append("date", "1999-01-01").append("streak", 3));
+
+        tenancyMigration.migrate();
+        tenancyMigration.migrate();
+
+        assertThat(mongoTemplate.findById("1999-01-01", DailySummary.class)).isNull();
+        DailySummary moved = mongoTemplate.findById("default:1999-01-01", DailySummary.class);
+        assertThat(moved).isNotNull();
+        assertThat(moved.getUserId()).isEqualTo(UserScope.DEFAULT_USER_ID);
+        assertThat(moved.getStreak()).isEqualTo(3);
+        assertThat(mongoTemplate.count(new Query(Criteria.where("date").is("1999-01-01")), DailySummary.class))
+            .isEqualTo(1);
+    }
+}
@@ -0,0 +1,111 @@
+package com.growthtracker.config;
+
+import com.growthtracker.service.UserScope;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserIdFilterTest {
+
+    private static final String SECRET = "test-secret";
+
+    private final UserIdFilter filter = new UserIdFilter("");
+    private final UserIdFilter signedFilter = new UserIdFilter(SECRET);
+
+    @Test
+    void bindsTheHeaderForTheRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.addHeader(UserIdFilter.HEADER, " alice ");
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(),
+            (req, res) -> seen.set(UserScope.currentUserId()));
+
+        assertThat(seen.get()).isEqualTo("alice");
+        assertThat(UserScope.currentUserId()).isEqualTo(UserScope.DEFAULT_USER_ID);
+    }
+
+    @Test
+    void rejectsAMissingHeader() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/tasks"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(400);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void rejectsAnIdContainingTheKeySeparator() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.addHeader(UserIdFilter.HEADER, "category:all");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(400);
+    }
+
+    @Test
+    void letsCorsPreflightsThrough() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("OPTIONS", "/api/tasks");
+        request.addHeader(HttpHeaders.ORIGIN, "http://localhost:5173");
+        request.addHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "GET");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+
+    @Test
+    void acceptsACorrectlySignedId() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.addHeader(UserIdFilter.HEADER, "alice");
+        request.addHeader(UserIdFilter.SIGNATURE_HEADER, signature("alice"));
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        signedFilter.doFilter(request, new MockHttpServletResponse(),
+            (req, res) -> seen.set(UserScope.currentUserId()));
+
+        assertThat(seen.get()).isEqualTo("alice");
+    }
+
+    @Test
+    void rejectsAnUnsignedIdWhenSigningIsRequired() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.addHeader(UserIdFilter.HEADER, "alice");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        signedFilter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void rejectsASignatureOfAnotherUser() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.addHeader(UserIdFilter.HEADER, UserScope.DEFAULT_USER_ID);
+        request.addHeader(UserIdFilter.SIGNATURE_HEADER, signature("alice"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        signedFilter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(401);
+    }
+
+    private static String signature(String userId) {
+        return UserIdFilter.sign(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"), userId);
+    }
+}
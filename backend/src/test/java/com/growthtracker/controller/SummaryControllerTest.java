@@ -0,0 +1,61 @@
+package com.growthtracker.controller;
+
+import com.growthtracker.MongoIntegrationTest;
+import com.growthtracker.dto.TaskDTO;
+import com.growthtracker.model.Task;
+import com.growthtracker.service.TaskService;
+import com.growthtracker.service.UserScope;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+class SummaryControllerTest extends MongoIntegrationTest {
+
+    private static final String DATE = "2024-03-05";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    void summaryReflectsAStatusChangeStillInTheRecomputeQueue() throws Exception {
+        String userId = "summary-" + UUID.randomUUID();
+        Task task = createDailyTask(userId);
+
+        mockMvc.perform(post("/api/status/{taskId}", task.getId())
+                .header("X-User-Id", userId).param("date", DATE).param("completed", "true"))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/summary")
+                .header("X-User-Id", userId).param("date", DATE))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.userId").value(userId))
+            .andExpect(jsonPath("$.date").value(DATE))
+            .andExpect(jsonPath("$.completedTasks").value(1))
+            .andExpect(jsonPath("$.totalTasks").value(1));
+    }
+
+    private Task createDailyTask(String userId) {
+        UserScope.bind(userId);
+        try {
+            TaskDTO dto = new TaskDTO();
+            dto.setTitle("Summary " + UUID.randomUUID());
+            dto.setCategory("Test");
+            dto.setFrequency("Daily");
+            return taskService.createTask(dto);
+        } finally {
+            UserScope.clear();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.growthtracker.service;
+
+import com.growthtracker.MongoIntegrationTest;
+import com.growthtracker.dto.CompleteTaskRequest;
+import com.growthtracker.dto.RangeAnalyticsDTO;
+import com.growthtracker.dto.TaskDTO;
+import com.growthtracker.dto.WeeklyAnalyticsDTO;
+import com.growthtracker.model.Task;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.tuple;
+
+class AnalyticsServiceTest extends MongoIntegrationTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 3, 4);
+    private static final LocalDate TO = FROM.plusDays(3);
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskStatusService taskStatusService;
+
+    @AfterEach
+    void clearUser() {
+        UserScope.clear();
+    }
+
+    @Test
+    void rangeAnalyticsFollowTheDailySummaryRules() {
+        bindNewUser();
+        Task a = createTask("A", "Reading", "Daily", null);
+        Task b = createTask("B", "Reading", "Daily", null);
+        Task c = createTask("C", "Fitness", "One-time", FROM.plusDays(2));
+        createTask("D", "Fitness", "One-time", TO.plusDays(30));
+        Task e = createTask("E", "Fitness", "Daily", null);
+        taskService.completeTask(e.getId(), new CompleteTaskRequest("done", null));
+        for (int day = 0; day < 3; day++) {
+            taskStatusService.markStatus(a.getId(), FROM.plusDays(day), true);
+        }
+        taskStatusService.markStatus(b.getId(), FROM.plusDays(1), true);
+        taskStatusService.markStatus(c.getId(), FROM.plusDays(2), true);
+        // Outside the range
+        taskStatusService.markStatus(b.getId(), TO.plusDays(1), true);
+
+        RangeAnalyticsDTO result = analyticsService.getRangeAnalytics(FROM, TO);
+
+        assertThat(result.getDays()).isEqualTo(4);
+        assertThat(result.getTotalCompletions()).isEqualTo(5);
+        assertThat(result.getStrongestTask()).isEqualTo("A");
+        assertThat(result.getWeakestTask()).isEqualTo("E");
+        // The One-time task scheduled after the range is left out
+        assertThat(result.getTasks())
+            .extracting(RangeAnalyticsDTO.TaskCompletion::getTitle, RangeAnalyticsDTO.TaskCompletion::getCompletedDays,
+                RangeAnalyticsDTO.TaskCompletion::getActiveDays, RangeAnalyticsDTO.TaskCompletion::getCompletionRate)
+            .containsExactlyInAnyOrder(
+                tuple("A", 3, 4, 75.0),
+                tuple("B", 1, 4, 25.0),
+                tuple("C", 1, 1, 100.0),
+                tuple("E", 0, 4, 0.0));
+        // A, B and E every day, plus C on its scheduled day; E counts as done throughout
+        assertThat(result.getDailyProgress())
+            .extracting(WeeklyAnalyticsDTO.DailyProgress::getDate, WeeklyAnalyticsDTO.DailyProgress::getCompletionPercentage)
+            .containsExactly(
+                tuple("2024-03-04", 66.67),
+                tuple("2024-03-05", 100.0),
+                tuple("2024-03-06", 75.0),
+                tuple("2024-03-07", 33.33));
+        assertThat(result.getAverageCompletion()).isEqualTo(68.75);
+    }
+
+    @Test
+    void rangeAnalyticsWithoutTasksAreEmpty() {
+        bindNewUser();
+
+        RangeAnalyticsDTO result = analyticsService.getRangeAnalytics(FROM, FROM);
+
+        assertThat(result.getTotalCompletions()).isZero();
+        assertThat(result.getStrongestTask()).isEqualTo("N/A");
+        assertThat(result.getWeakestTask()).isEqualTo("N/A");
+        assertThat(result.getDailyProgress()).singleElement()
+            .extracting(WeeklyAnalyticsDTO.DailyProgress::getCompletionPercentage).isEqualTo(0.0);
+    }
+
+    @Test
+    void rangeAnalyticsRejectInvalidRanges() {
+        bindNewUser();
+
+        assertThatThrownBy(() -> analyticsService.getRangeAnalytics(TO, FROM))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> analyticsService.getRangeAnalytics(FROM, FROM.plusDays(1096)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void categoryTrendBucketsStartOnDaysMondaysAndMonths() {
+        // 2024-03-06 is a Wednesday
+        LocalDate wednesday = LocalDate.of(2024, 3, 6);
+
+        assertThat(AnalyticsService.bucketsOf(wednesday, wednesday.plusDays(2), "day"))
+            .containsExactly(wednesday, wednesday.plusDays(1), wednesday.plusDays(2));
+        assertThat(AnalyticsService.bucketsOf(wednesday, LocalDate.of(2024, 3, 18), "week"))
+            .containsExactly(LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 11), LocalDate.of(2024, 3, 18));
+        assertThat(AnalyticsService.bucketsOf(wednesday, LocalDate.of(2024, 5, 1), "month"))
+            .containsExactly(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 4, 1), LocalDate.of(2024, 5, 1));
+    }
+
+    @Test
+    void categoryTrendSeriesFillEveryBucketPerCategory() {
+        List<LocalDate> buckets = AnalyticsService.bucketsOf(FROM, FROM.plusDays(13), "week");
+        List<Document> rows = List.of(
+            row("Reading", FROM, 2),
+            row("Reading", FROM.plusDays(7), 1),
+            row("Fitness", FROM.plusDays(7), 4),
+            row(null, FROM, 1),
+            // Outside the buckets
+            row("Fitness", FROM.plusDays(14), 9));
+
+        Map<String, List<Long>> series = AnalyticsService.toSeries(buckets, rows);
+
+        assertThat(series.keySet()).containsExactly("Fitness", "Reading", "Uncategorized");
+        assertThat(series.get("Reading")).containsExactly(2L, 1L);
+        assertThat(series.get("Fitness")).containsExactly(0L, 4L);
+        assertThat(series.get("Uncategorized")).containsExactly(1L, 0L);
+    }
+
+    @Test
+    void categoryTrendRejectsAnUnknownGranularity() {
+        bindNewUser();
+
+        assertThatThrownBy(() -> analyticsService.getCategoryTrend(FROM, TO, "year"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void categoryAnalyticsCountTheLastSevenDays() {
+        bindNewUser();
+        LocalDate today = LocalDate.now();
+        Task reading = createTask("Read", "Reading", "Daily", null);
+        Task fitness = createTask("Run", "Fitness", "Daily", null);
+        taskStatusService.markStatus(reading.getId(), today, true);
+        taskStatusService.markStatus(reading.getId(), today.minusDays(6), true);
+        taskStatusService.markStatus(reading.getId(), today.minusDays(7), true);
+        taskStatusService.markStatus(fitness.getId(), today.minusDays(2), true);
+        taskStatusService.markStatus(fitness.getId(), today.minusDays(3), false);
+
+        assertThat(analyticsService.getCategoryAnalytics())
+            .containsOnly(entry("Reading", 2L), entry("Fitness", 1L));
+    }
+
+    /** An aggregation row as produced by the $group stage of getCategoryTrend. */
+    private static Document row(String category, LocalDate bucket, long count) {
+        Date start = Date.from(bucket.atStartOfDay(ZoneId.systemDefault()).toInstant());
+        return new Document("_id", new Document("category", category).append("bucket", start)).append("count", count);
+    }
+
+    private void bindNewUser() {
+        UserScope.bind("analytics-" + UUID.randomUUID());
+    }
+
+    private Task createTask(String title, String category, String frequency, LocalDate scheduledDate) {
+        TaskDTO dto = new TaskDTO();
+        dto.setTitle(title);
+        dto.setCategory(category);
+        dto.setFrequency(frequency);
+        dto.setScheduledDate(scheduledDate);
+        return taskService.createTask(dto);
+    }
+}
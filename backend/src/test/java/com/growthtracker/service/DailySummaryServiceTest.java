@@ -0,0 +1,141 @@
+package com.growthtracker.service;
+
+import com.growthtracker.MongoIntegrationTest;
+import com.growthtracker.dto.CompleteTaskRequest;
+import com.growthtracker.dto.TaskDTO;
+import com.growthtracker.model.DailySummary;
+import com.growthtracker.model.Task;
+import com.growthtracker.model.TaskStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DailySummaryServiceTest extends MongoIntegrationTest {
+
+    private static final int DAYS = 12;
+
+    @Autowired
+    private DailySummaryService dailySummaryService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @AfterEach
+    void clearUser() {
+        UserScope.clear();
+    }
+
+    @Test
+    void concurrentRecomputesOfOneUserLeaveConsistentStreaks() throws Exception {
+        for (int round = 0; round < 5; round++) {
+            String userId = "streak-" + UUID.randomUUID();
+            UserScope.bind(userId);
+            Task task = createDailyTask();
+            LocalDate first = LocalDate.of(2024, 1, 1);
+            List<LocalDate> dates = new ArrayList<>();
+            for (int d = 0; d < DAYS; d++) {
+                LocalDate date = first.plusDays(d);
+                dates.add(date);
+                mongoTemplate.insert(TaskStatus.builder()
+                    .userId(userId).taskId(task.getId()).date(date).completed(true).build());
+            }
+            Collections.shuffle(dates);
+
+            ExecutorService pool = Executors.newFixedThreadPool(DAYS);
+            try {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<DailySummary>> calls = new ArrayList<>();
+                for (LocalDate date : dates) {
+                    calls.add(pool.submit(() -> {
+                        start.await();
+                        return dailySummaryService.recompute(userId, date);
+                    }));
+                }
+                start.countDown();
+                for (Future<DailySummary> call : calls) {
+                    call.get();
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+
+            List<DailySummary> summaries = mongoTemplate.find(
+                new Query(Criteria.where("userId").is(userId)).with(Sort.by("date")), DailySummary.class);
+            assertThat(summaries).hasSize(DAYS);
+            for (int d = 0; d < DAYS; d++) {
+                assertThat(summaries.get(d).getStreak()).as("streak on %s", summaries.get(d).getDate())
+                    .isEqualTo(d + 1);
+            }
+        }
+    }
+
+    @Test
+    void aggregationCountsMatchTheInMemoryCounts() {
+        String userId = "parity-" + UUID.randomUUID();
+        UserScope.bind(userId);
+        LocalDate day = LocalDate.of(2024, 4, 10);
+        Task done = createTask("Daily", null);
+        Task undone = createTask("Daily", null);
+        Task noStatus = createTask("Weekly", null);
+        Task completed = createTask("Daily", null);
+        Task scheduledToday = createTask("One-time", day);
+        Task scheduledTomorrow = createTask("One-time", day.plusDays(1));
+        Task unscheduled = createTask("one-time", null);
+        taskService.completeTask(completed.getId(), new CompleteTaskRequest("done", null));
+        insertStatus(userId, done, day, true);
+        insertStatus(userId, undone, day, false);
+        insertStatus(userId, scheduledToday, day, true);
+        insertStatus(userId, scheduledTomorrow, day, true);
+        insertStatus(userId, unscheduled, day, true);
+        insertStatus(userId, noStatus, day.minusDays(1), true);
+
+        for (LocalDate date : List.of(day.minusDays(1), day, day.plusDays(1), day.plusDays(2))) {
+            assertThat(dailySummaryService.countWithAggregation(userId, date)).as("counts on %s", date)
+                .isEqualTo(dailySummaryService.countInMemory(userId, date));
+        }
+        // Four Daily/Weekly tasks plus the One-time task scheduled that day; three of them are done
+        assertThat(dailySummaryService.countWithAggregation(userId, day))
+            .isEqualTo(new DailySummaryService.DayCounts(5, 3));
+    }
+
+    private Task createTask(String frequency, LocalDate scheduledDate) {
+        TaskDTO dto = new TaskDTO();
+        dto.setTitle("Parity " + UUID.randomUUID());
+        dto.setCategory("Test");
+        dto.setFrequency(frequency);
+        dto.setScheduledDate(scheduledDate);
+        return taskService.createTask(dto);
+    }
+
+    private void insertStatus(String userId, Task task, LocalDate date, boolean completed) {
+        mongoTemplate.insert(TaskStatus.builder()
+            .userId(userId).taskId(task.getId()).date(date).completed(completed).build());
+    }
+
+    private Task createDailyTask() {
+        TaskDTO dto = new TaskDTO();
+        dto.setTitle("Streak " + UUID.randomUUID());
+        dto.setCategory("Test");
+        dto.setFrequency("Daily");
+        return taskService.createTask(dto);
+    }
+}
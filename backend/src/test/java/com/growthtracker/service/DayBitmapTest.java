@@ -0,0 +1,88 @@
+package com.growthtracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DayBitmapTest {
+
+    @Test
+    void setAndClearSingleDays() {
+        DayBitmap bitmap = new DayBitmap();
+        bitmap.set(19_000, true);
+        bitmap.set(19_001, true);
+        bitmap.set(19_000, false);
+
+        assertThat(bitmap.get(19_000)).isFalse();
+        assertThat(bitmap.get(19_001)).isTrue();
+        assertThat(bitmap.get(18_999)).isFalse();
+    }
+
+    @Test
+    void clearingAnUnsetDayOutsideTheRangeIsANoOp() {
+        DayBitmap bitmap = new DayBitmap();
+        bitmap.set(500, false);
+        bitmap.set(100, true);
+        bitmap.set(10_000, false);
+
+        assertThat(bitmap.count(0, 20_000)).isEqualTo(1);
+    }
+
+    @Test
+    void growsBackwardsAndForwards() {
+        DayBitmap bitmap = new DayBitmap();
+        bitmap.set(1_000, true);
+        bitmap.set(10, true);
+        bitmap.set(5_000, true);
+
+        assertThat(bitmap.get(10)).isTrue();
+        assertThat(bitmap.get(1_000)).isTrue();
+        assertThat(bitmap.get(5_000)).isTrue();
+        assertThat(bitmap.count(0, 10_000)).isEqualTo(3);
+    }
+
+    @Test
+    void countRespectsRangeEndsWithinAndAcrossWords() {
+        DayBitmap bitmap = new DayBitmap();
+        for (long day = 60; day <= 140; day++) {
+            bitmap.set(day, true);
+        }
+
+        assertThat(bitmap.count(60, 140)).isEqualTo(81);
+        assertThat(bitmap.count(63, 64)).isEqualTo(2);
+        assertThat(bitmap.count(70, 70)).isEqualTo(1);
+        assertThat(bitmap.count(0, 59)).isZero();
+        assertThat(bitmap.count(141, 1_000)).isZero();
+        assertThat(bitmap.count(100, 200)).isEqualTo(41);
+    }
+
+    @Test
+    void handlesNegativeEpochDays() {
+        DayBitmap bitmap = new DayBitmap();
+        bitmap.set(-1, true);
+        bitmap.set(-64, true);
+        bitmap.set(-65, true);
+
+        assertThat(bitmap.get(-1)).isTrue();
+        assertThat(bitmap.get(0)).isFalse();
+        assertThat(bitmap.count(-64, -1)).isEqualTo(2);
+        assertThat(bitmap.count(-100, 100)).isEqualTo(3);
+    }
+
+    @Test
+    void forEachVisitsSetDaysInOrderWithinTheRange() {
+        DayBitmap bitmap = new DayBitmap();
+        long[] days = {3, 64, 65, 127, 128, 300};
+        for (long day : days) {
+            bitmap.set(day, true);
+        }
+
+        List<Long> visited = new ArrayList<>();
+        bitmap.forEach(4, 128, visited::add);
+
+        assertThat(visited).containsExactly(64L, 65L, 127L, 128L);
+    }
+}
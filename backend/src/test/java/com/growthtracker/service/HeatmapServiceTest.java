@@ -0,0 +1,123 @@
+package com.growthtracker.service;
+
+import com.growthtracker.MongoIntegrationTest;
+import com.growthtracker.dto.CompleteTaskRequest;
+import com.growthtracker.dto.HeatmapDTO;
+import com.growthtracker.dto.TaskDTO;
+import com.growthtracker.model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HeatmapServiceTest extends MongoIntegrationTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+
+    @Autowired
+    private HeatmapService heatmapService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskStatusService taskStatusService;
+
+    @AfterEach
+    void clearUser() {
+        UserScope.clear();
+    }
+
+    @Test
+    void quantizeMapsPercentagesToQuarterLevels() {
+        assertThat(HeatmapService.quantize(0)).isEqualTo((byte) 0);
+        assertThat(HeatmapService.quantize(-1)).isEqualTo((byte) 0);
+        assertThat(HeatmapService.quantize(0.1)).isEqualTo((byte) 1);
+        assertThat(HeatmapService.quantize(25)).isEqualTo((byte) 1);
+        assertThat(HeatmapService.quantize(25.01)).isEqualTo((byte) 2);
+        assertThat(HeatmapService.quantize(75)).isEqualTo((byte) 3);
+        assertThat(HeatmapService.quantize(100)).isEqualTo((byte) 4);
+        assertThat(HeatmapService.quantize(150)).isEqualTo((byte) 4);
+    }
+
+    @Test
+    void packedEncodingStoresTwoDaysPerByteLowNibbleFirst() {
+        byte[] levels = {1, 2, 3, 4, 0};
+        HeatmapDTO dto = HeatmapService.encode(FROM, FROM.plusDays(4), null, 4, levels, "packed");
+
+        assertThat(dto.getEncoding()).isEqualTo("packed");
+        assertThat(dto.getDays()).isEqualTo(5);
+        assertThat(Base64.getDecoder().decode(dto.getData()))
+            .containsExactly((byte) 0x21, (byte) 0x43, (byte) 0x00);
+    }
+
+    @Test
+    void rleEncodingStoresLevelAndRunLengthPairs() {
+        byte[] levels = {0, 0, 0, 1, 1, 4, 0};
+        HeatmapDTO dto = HeatmapService.encode(FROM, FROM.plusDays(6), "task-1", 1, levels, "RLE");
+
+        assertThat(dto.getEncoding()).isEqualTo("rle");
+        assertThat(dto.getTaskId()).isEqualTo("task-1");
+        assertThat(dto.getRuns()).containsExactly(0, 3, 1, 2, 4, 1, 0, 1);
+    }
+
+    @Test
+    void taskHeatmapShowsTheDaysWithACompletedStatus() {
+        bindNewUser();
+        Task task = createTask("Daily", null);
+        taskStatusService.markStatus(task.getId(), FROM.plusDays(1), true);
+        taskStatusService.markStatus(task.getId(), FROM.plusDays(2), true);
+        taskStatusService.markStatus(task.getId(), FROM.plusDays(2), false);
+        taskStatusService.markStatus(task.getId(), FROM.plusDays(4), true);
+
+        HeatmapDTO dto = heatmapService.getTaskHeatmap(task.getId(), FROM, FROM.plusDays(5), "rle");
+
+        assertThat(dto.getRuns()).containsExactly(0, 1, 1, 1, 0, 2, 1, 1, 0, 1);
+    }
+
+    @Test
+    void oneTimeTaskOnlyShowsOnItsScheduledDate() {
+        bindNewUser();
+        LocalDate scheduled = FROM.plusDays(2);
+        Task task = createTask("One-time", scheduled);
+        // A stray status on another day does not count, as in the daily summaries
+        taskStatusService.markStatus(task.getId(), FROM.plusDays(1), true);
+        taskStatusService.markStatus(task.getId(), scheduled, true);
+
+        HeatmapDTO dto = heatmapService.getTaskHeatmap(task.getId(), FROM, FROM.plusDays(4), "rle");
+
+        assertThat(dto.getRuns()).containsExactly(0, 2, 1, 1, 0, 2);
+    }
+
+    @Test
+    void globallyCompletedTaskShowsOnEveryDayItCounts() {
+        bindNewUser();
+        Task daily = createTask("Daily", null);
+        Task oneTime = createTask("One-time", FROM.plusDays(3));
+        taskService.completeTask(daily.getId(), new CompleteTaskRequest("done", null));
+        taskService.completeTask(oneTime.getId(), new CompleteTaskRequest("done", null));
+
+        assertThat(heatmapService.getTaskHeatmap(daily.getId(), FROM, FROM.plusDays(4), "rle").getRuns())
+            .containsExactly(1, 5);
+        assertThat(heatmapService.getTaskHeatmap(oneTime.getId(), FROM, FROM.plusDays(4), "rle").getRuns())
+            .containsExactly(0, 3, 1, 1, 0, 1);
+    }
+
+    private void bindNewUser() {
+        UserScope.bind("heatmap-" + UUID.randomUUID());
+    }
+
+    private Task createTask(String frequency, LocalDate scheduledDate) {
+        TaskDTO dto = new TaskDTO();
+        dto.setTitle("Heatmap " + UUID.randomUUID());
+        dto.setCategory("Test");
+        dto.setFrequency(frequency);
+        dto.setScheduledDate(scheduledDate);
+        return taskService.createTask(dto);
+    }
+}
@@ -0,0 +1,95 @@
+package com.growthtracker.service;
+
+import com.growthtracker.model.Task;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HistoryKeysetTest {
+
+    private final MongoConverter converter = converter();
+
+    @Test
+    void ofMapsSortNamesAndDefaultsToLatest() {
+        assertThat(HistoryKeyset.of("oldest")).isEqualTo(HistoryKeyset.OLDEST);
+        assertThat(HistoryKeyset.of("TIME_DESC")).isEqualTo(HistoryKeyset.TIME_DESC);
+        assertThat(HistoryKeyset.of("priority")).isEqualTo(HistoryKeyset.PRIORITY);
+        assertThat(HistoryKeyset.of(null)).isEqualTo(HistoryKeyset.LATEST);
+        assertThat(HistoryKeyset.of("relevance")).isEqualTo(HistoryKeyset.LATEST);
+    }
+
+    @Test
+    void cursorCarriesTheIdAsAnObjectId() {
+        ObjectId id = new ObjectId();
+        Task last = task(id, LocalDateTime.of(2024, 5, 1, 12, 0));
+
+        Document criteria = HistoryKeyset.LATEST.after(HistoryKeyset.LATEST.encode(last, converter))
+            .getCriteriaObject();
+
+        assertThat(idBound(criteria, "$lt")).isEqualTo(id);
+    }
+
+    @Test
+    void afterRejectsCursorsForAnotherSortOrGarbage() {
+        String latest = HistoryKeyset.LATEST.encode(task(new ObjectId(), LocalDateTime.now()), converter);
+
+        assertThatThrownBy(() -> HistoryKeyset.OLDEST.after(latest))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HistoryKeyset.LATEST.after("not a cursor"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HistoryKeyset.LATEST.after(
+                cursor(new Document("s", "LATEST").append("v", Arrays.asList(null, "abc")))))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /** The value compared against _id with the given operator, wherever it sits in the criteria. */
+    private static Object idBound(Object node, String operator) {
+        if (node instanceof Document document) {
+            if (document.get("_id") instanceof Document id && id.containsKey(operator)) {
+                return id.get(operator);
+            }
+            return idBound(new ArrayList<>(document.values()), operator);
+        }
+        if (node instanceof List<?> list) {
+            for (Object child : list) {
+                Object bound = idBound(child, operator);
+                if (bound != null) {
+                    return bound;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static MongoConverter converter() {
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    private static Task task(ObjectId id, LocalDateTime completedAt) {
+        Task task = new Task();
+        task.setId(id.toHexString());
+        task.setCompletedAt(completedAt);
+        return task;
+    }
+
+    private static String cursor(Document document) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(document.toJson().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,149 @@
+package com.growthtracker.service;
+
+import com.growthtracker.MongoIntegrationTest;
+import com.growthtracker.dto.TaskDTO;
+import com.growthtracker.model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Each scenario expects the message the original if/else chain in SuggestionService
+ * returned for the same data, so the rules must keep that order and wording.
+ */
+class SuggestionServiceTest extends MongoIntegrationTest {
+
+    private static final String ONBOARDING =
+        "🚀 Start by adding your first task! Consistent tracking is the first step to growth.";
+    private static final String HEALTH =
+        "🏋️ Your health routine needs consistency. You've missed Gym/Health for 3 consecutive days — get back on track!";
+    private static final String INTERVIEW =
+        "📋 Increase interview preparation to improve placement readiness. Aim for at least 3 sessions per week!";
+    private static final String LOW_AVERAGE =
+        "📉 Your performance is below your potential. Focus on completing at least 70% of your tasks daily to build momentum!";
+    private static final String BROKEN_STREAK =
+        "💫 Don't let one bad day stop your momentum. Your streak was broken, but you can start a new one today!";
+    private static final String DEFAULT =
+        "✅ You're making progress! Keep completing your tasks daily to build an unbreakable streak. You've got this!";
+
+    private final LocalDate today = LocalDate.now();
+
+    @Autowired
+    private SuggestionService suggestionService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskStatusService taskStatusService;
+
+    @AfterEach
+    void clearUser() {
+        UserScope.clear();
+    }
+
+    @Test
+    void noTasksGetsTheOnboardingMessage() {
+        bindNewUser();
+
+        assertThat(suggestionService.getSuggestion()).isEqualTo(ONBOARDING);
+    }
+
+    @Test
+    void missedGymComesBeforeInterviewPreparation() {
+        bindNewUser();
+        Task gym = createTask("Gym session", "Fitness");
+        createTask("Interview practice", "Career");
+        // Completed four days ago only: the last three days are missed
+        complete(gym, 4);
+
+        assertThat(suggestionService.getSuggestion()).isEqualTo(HEALTH);
+    }
+
+    @Test
+    void healthCategoryCountsAsAGymTask() {
+        bindNewUser();
+        createTask("Walk", "Health");
+
+        assertThat(suggestionService.getSuggestion()).isEqualTo(HEALTH);
+    }
+
+    @Test
+    void fewInterviewSessionsComeBeforeTheWeeklyAverage() {
+        bindNewUser();
+        Task gym = createTask("Gym session", "Fitness");
+        Task interview = createTask("Interview practice", "Career");
+        complete(gym, 1);
+        complete(interview, 2);
+
+        assertThat(suggestionService.getSuggestion()).isEqualTo(INTERVIEW);
+    }
+
+    @Test
+    void lowWeeklyAverageComesBeforeTheStreakRules() {
+        bindNewUser();
+        Task read = createTask("Read", "Learning");
+        createTask("Write", "Learning");
+        createTask("Code", "Learning");
+        // One of three tasks done on each of the last two days: 33% average
+        complete(read, 1);
+        complete(read, 0);
+
+        assertThat(suggestionService.getSuggestion()).isEqualTo(LOW_AVERAGE);
+    }
+
+    @Test
+    void aStreakBrokenTodayGetsTheMomentumMessage() {
+        bindNewUser();
+        Task read = createTask("Read", "Learning");
+        for (int daysAgo = 6; daysAgo >= 1; daysAgo--) {
+            complete(read, daysAgo);
+        }
+        taskStatusService.markStatus(read.getId(), today, false);
+
+        assertThat(suggestionService.getSuggestion()).isEqualTo(BROKEN_STREAK);
+    }
+
+    @Test
+    void aWeekLongStreakIsPraised() {
+        bindNewUser();
+        Task read = createTask("Read", "Learning");
+        for (int daysAgo = 6; daysAgo >= 0; daysAgo--) {
+            complete(read, daysAgo);
+        }
+
+        assertThat(suggestionService.getSuggestion()).isEqualTo(
+            "🔥 Incredible! You've maintained a 7-day streak! Keep pushing — consistency is your superpower!");
+    }
+
+    @Test
+    void otherwiseTheDefaultMessage() {
+        bindNewUser();
+        Task read = createTask("Read", "Learning");
+        complete(read, 1);
+        complete(read, 0);
+
+        assertThat(suggestionService.getSuggestion()).isEqualTo(DEFAULT);
+    }
+
+    private void bindNewUser() {
+        UserScope.bind("suggestion-" + UUID.randomUUID());
+    }
+
+    private Task createTask(String title, String category) {
+        TaskDTO dto = new TaskDTO();
+        dto.setTitle(title);
+        dto.setCategory(category);
+        dto.setFrequency("Daily");
+        return taskService.createTask(dto);
+    }
+
+    private void complete(Task task, int daysAgo) {
+        taskStatusService.markStatus(task.getId(), today.minusDays(daysAgo), true);
+    }
+}
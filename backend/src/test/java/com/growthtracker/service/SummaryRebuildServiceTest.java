@@ -0,0 +1,162 @@
+package com.growthtracker.service;
+
+import com.growthtracker.MongoIntegrationTest;
+import com.growthtracker.config.UserIdFilter;
+import com.growthtracker.dto.SummaryRebuildDTO;
+import com.growthtracker.dto.TaskDTO;
+import com.growthtracker.exception.RebuildInProgressException;
+import com.growthtracker.model.DailySummary;
+import com.growthtracker.model.StreakRecord;
+import com.growthtracker.model.Task;
+import com.growthtracker.model.TaskStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+class SummaryRebuildServiceTest extends MongoIntegrationTest {
+
+    private static final LocalDate D1 = LocalDate.of(2024, 2, 1);
+
+    @Autowired
+    private SummaryRebuildService summaryRebuildService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private DailySummaryService dailySummaryService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @AfterEach
+    void clearUser() {
+        UserScope.clear();
+    }
+
+    @Test
+    void rebuildRegeneratesSummariesAndTheStreakRecord() {
+        String userId = bindNewUser();
+        Task a = createDailyTask();
+        Task b = createDailyTask();
+        // Day 1 and 2 fully done, day 3 half done, day 4 fully done
+        for (int day = 0; day < 4; day++) {
+            LocalDate date = D1.plusDays(day);
+            insertStatus(userId, a, date, true);
+            insertStatus(userId, b, date, day != 2);
+        }
+        // Stale data the rebuild must overwrite, including a day after the last status
+        mongoTemplate.save(DailySummaryService.buildSummary(userId, D1.plusDays(4).toString(), 2, 2, 100, 99, 99));
+        mongoTemplate.save(StreakRecord.builder()
+            .id(UserScope.key(userId, StreakRecord.GLOBAL_ID)).userId(userId).longestStreak(99).build());
+
+        SummaryRebuildDTO result = summaryRebuildService.rebuildAll();
+
+        assertThat(result.isRunning()).isFalse();
+        assertThat(result.getDaysProcessed()).isEqualTo(5);
+        assertThat(result.getStatusesScanned()).isEqualTo(8);
+        assertThat(result.getLongestStreak()).isEqualTo(2);
+        List<DailySummary> summaries = mongoTemplate.find(
+            new Query(Criteria.where("userId").is(userId)).with(Sort.by("date")), DailySummary.class);
+        assertThat(summaries)
+            .extracting(DailySummary::getDate, DailySummary::getCompletedTasks, DailySummary::getStreak)
+            .containsExactly(
+                tuple("2024-02-01", 2, 1),
+                tuple("2024-02-02", 2, 2),
+                tuple("2024-02-03", 1, 0),
+                tuple("2024-02-04", 2, 1),
+                tuple("2024-02-05", 0, 0));
+        assertThat(mongoTemplate.findById(UserScope.key(userId, StreakRecord.GLOBAL_ID), StreakRecord.class)
+            .getLongestStreak()).isEqualTo(2);
+        assertThat(summaryRebuildService.getProgress()).isEqualTo(result);
+    }
+
+    @Test
+    void aSecondRebuildOfTheSameUserIsRejected() throws Exception {
+        String userId = bindNewUser();
+        Set<String> running = runningUsers();
+        running.add(userId);
+        try {
+            assertThatThrownBy(() -> summaryRebuildService.rebuildAll())
+                .isInstanceOf(RebuildInProgressException.class);
+            mockMvc.perform(post("/api/admin/summaries/rebuild").header(UserIdFilter.HEADER, userId))
+                .andExpect(status().isConflict());
+        } finally {
+            running.remove(userId);
+        }
+    }
+
+    @Test
+    void rebuildExcludesTheUsersRecomputes() throws Exception {
+        String userId = bindNewUser();
+        CompletableFuture<SummaryRebuildDTO> rebuild = new CompletableFuture<>();
+        Thread rebuilder = new Thread(() -> {
+            UserScope.bind(userId);
+            try {
+                rebuild.complete(summaryRebuildService.rebuildAll());
+            } catch (RuntimeException ex) {
+                rebuild.completeExceptionally(ex);
+            } finally {
+                UserScope.clear();
+            }
+        });
+
+        // Held by a recompute's streak step
+        dailySummaryService.withUserLock(userId, () -> {
+            rebuilder.start();
+            assertThatThrownBy(() -> rebuild.get(300, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+            return null;
+        });
+
+        assertThat(rebuild.get(10, TimeUnit.SECONDS).isRunning()).isFalse();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String> runningUsers() {
+        return (Set<String>) ReflectionTestUtils.getField(summaryRebuildService, "running");
+    }
+
+    private String bindNewUser() {
+        String userId = "rebuild-" + UUID.randomUUID();
+        UserScope.bind(userId);
+        return userId;
+    }
+
+    private Task createDailyTask() {
+        TaskDTO dto = new TaskDTO();
+        dto.setTitle("Rebuild " + UUID.randomUUID());
+        dto.setCategory("Test");
+        dto.setFrequency("Daily");
+        return taskService.createTask(dto);
+    }
+
+    private void insertStatus(String userId, Task task, LocalDate date, boolean completed) {
+        mongoTemplate.insert(TaskStatus.builder()
+            .userId(userId).taskId(task.getId()).date(date).completed(completed).build());
+    }
+}
@@ -0,0 +1,147 @@
+package com.growthtracker.service;
+
+import com.growthtracker.model.DailySummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SummaryRecomputeQueueTest {
+
+    private static final String USER = UserScope.DEFAULT_USER_ID;
+    private static final LocalDate DATE = LocalDate.of(2024, 5, 1);
+
+    private final DailySummaryService dailySummaryService = mock(DailySummaryService.class);
+    private final SummaryRecomputeQueue queue = new SummaryRecomputeQueue(dailySummaryService);
+
+    /** Number of recomputes started so far; each returns a summary carrying its run number */
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @BeforeEach
+    void startQueue() {
+        ReflectionTestUtils.setField(queue, "windowMs", 50L);
+        ReflectionTestUtils.setField(queue, "threads", 2);
+        queue.start();
+    }
+
+    @AfterEach
+    void stopQueue() {
+        queue.stop();
+    }
+
+    @Test
+    void signalsInsideTheWindowShareOneRecompute() {
+        answerImmediately();
+
+        CompletableFuture<DailySummary> first = queue.markDirty(DATE);
+        for (int i = 0; i < 4; i++) {
+            assertThat(queue.markDirty(DATE)).isSameAs(first);
+        }
+
+        assertThat(first.join().getStreak()).isEqualTo(1);
+        verify(dailySummaryService, times(1)).recompute(USER, DATE);
+    }
+
+    @Test
+    void flushWaitsForTheRecomputeInFlight() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        answerAfter(started, release);
+
+        queue.markDirty(DATE);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<DailySummary> flushed = queue.flush(DATE);
+
+        assertThat(flushed).isNotDone();
+        release.countDown();
+        assertThat(flushed.get(5, TimeUnit.SECONDS).getStreak()).isEqualTo(1);
+    }
+
+    @Test
+    void aSignalDuringTheRecomputeSchedulesOneMoreRun() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        answerAfter(started, release);
+
+        CompletableFuture<DailySummary> first = queue.markDirty(DATE);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<DailySummary> second = queue.markDirty(DATE);
+        CompletableFuture<DailySummary> third = queue.markDirty(DATE);
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getStreak()).isEqualTo(1);
+        assertThat(second).isSameAs(third);
+        assertThat(second.get(5, TimeUnit.SECONDS).getStreak()).isEqualTo(2);
+        verify(dailySummaryService, times(2)).recompute(USER, DATE);
+    }
+
+    @Test
+    void differentDatesAreRecomputedSeparately() {
+        answerImmediately();
+
+        CompletableFuture<DailySummary> today = queue.markDirty(DATE);
+        CompletableFuture<DailySummary> tomorrow = queue.markDirty(DATE.plusDays(1));
+
+        CompletableFuture.allOf(today, tomorrow).join();
+        verify(dailySummaryService).recompute(USER, DATE);
+        verify(dailySummaryService).recompute(USER, DATE.plusDays(1));
+    }
+
+    @Test
+    void awaitRethrowsAFailedRecompute() {
+        when(dailySummaryService.recompute(eq(USER), any())).thenThrow(new IllegalStateException("boom"));
+
+        queue.markDirty(DATE);
+
+        assertThatThrownBy(() -> queue.await(DATE))
+            .isInstanceOf(CompletionException.class)
+            .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void stopDrainsPendingWorkBeforeShuttingDown() {
+        answerImmediately();
+        ReflectionTestUtils.setField(queue, "windowMs", 60_000L);
+
+        CompletableFuture<DailySummary> pending = queue.markDirty(DATE);
+        queue.stop();
+
+        assertThat(pending).isCompleted();
+        verify(dailySummaryService, times(1)).recompute(USER, DATE);
+    }
+
+    private void answerImmediately() {
+        when(dailySummaryService.recompute(eq(USER), any())).thenAnswer(call -> summary());
+    }
+
+    /** The first run signals started and waits for release; later runs answer at once. */
+    private void answerAfter(CountDownLatch started, CountDownLatch release) {
+        when(dailySummaryService.recompute(eq(USER), any())).thenAnswer(call -> {
+            if (runs.get() == 0) {
+                started.countDown();
+                assertThat(release.await(5, TimeUnit.SECONDS)).isTrue();
+            }
+            return summary();
+        });
+    }
+
+    private DailySummary summary() {
+        return DailySummary.builder().userId(USER).date(DATE.toString()).streak(runs.incrementAndGet()).build();
+    }
+}
@@ -0,0 +1,68 @@
+package com.growthtracker.service;
+
+import com.growthtracker.model.Task;
+import com.growthtracker.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TaskCatalogTest {
+
+    private static final String USER = "catalog-test";
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 6, 1, 10, 0);
+
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final TaskCatalog catalog = new TaskCatalog(taskRepository);
+
+    @BeforeEach
+    void loadEmptyCatalog() {
+        when(taskRepository.findByUserId(USER)).thenReturn(List.of());
+        ReflectionTestUtils.setField(catalog, "maxUsers", 10);
+        ReflectionTestUtils.setField(catalog, "ttl", Duration.ofMinutes(5));
+        catalog.start();
+        // Writes only apply to users whose catalog is loaded
+        assertThat(catalog.snapshot(USER).isEmpty()).isTrue();
+    }
+
+    @Test
+    void putReplacesWithANewerTask() {
+        catalog.put(task("PENDING", T0));
+        catalog.put(task("COMPLETED", T0.plusSeconds(1)));
+
+        assertThat(status()).isEqualTo("COMPLETED");
+    }
+
+    @Test
+    void putIgnoresATaskOlderThanTheCachedOne() {
+        catalog.put(task("COMPLETED", T0.plusSeconds(1)));
+        catalog.put(task("PENDING", T0));
+
+        assertThat(status()).isEqualTo("COMPLETED");
+        assertThat(catalog.snapshot(USER).all()).hasSize(1);
+    }
+
+    @Test
+    void putComparesAtMillisecondPrecision() {
+        // The cached copy kept nanoseconds; the stored copy read back has milliseconds
+        catalog.put(task("PENDING", T0.plusNanos(123_456_789)));
+        catalog.put(task("COMPLETED", T0.plusNanos(123_000_000)));
+
+        assertThat(status()).isEqualTo("COMPLETED");
+    }
+
+    private String status() {
+        return catalog.snapshot(USER).findById("t1").orElseThrow().getStatus();
+    }
+
+    private static Task task(String status, LocalDateTime updatedAt) {
+        return Task.builder().id("t1").userId(USER).title("Read").status(status).updatedAt(updatedAt).build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.growthtracker.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.growthtracker.MongoIntegrationTest;
+import com.growthtracker.dto.CompleteTaskRequest;
+import com.growthtracker.dto.TaskDTO;
+import com.growthtracker.dto.TaskHistoryFilterRequest;
+import com.growthtracker.model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskHistoryExportServiceTest extends MongoIntegrationTest {
+
+    private static final String TITLE = "Read \"Dune\", part 1";
+    private static final String NOTE = "Line one\r\nsaid \"hi\", then left";
+
+    @Autowired
+    private TaskHistoryExportService exportService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Task quoted;
+    private Task plain;
+
+    @BeforeEach
+    void createHistory() {
+        UserScope.bind("export-" + UUID.randomUUID());
+        quoted = complete(createTask(TITLE, "Books"), NOTE, 45);
+        plain = complete(createTask("Stretch", "Health"), "plain note", null);
+    }
+
+    @AfterEach
+    void clearUser() {
+        UserScope.clear();
+    }
+
+    @Test
+    void csvQuotesFieldsWithCommasQuotesAndLineBreaks() throws IOException {
+        String csv = export(TaskHistoryExportService.Format.CSV, "oldest");
+
+        String header = "id,title,category,frequency,priority,timeSpent,completedAt,completionNote\n";
+        String quotedRow = quoted.getId() + ",\"Read \"\"Dune\"\", part 1\",Books,Daily,MEDIUM,45,"
+            + quoted.getCompletedAt() + ",\"Line one\r\nsaid \"\"hi\"\", then left\"\n";
+        String plainRow = plain.getId() + ",Stretch,Health,Daily,MEDIUM,," + plain.getCompletedAt() + ",plain note\n";
+        assertThat(csv).isEqualTo(header + quotedRow + plainRow);
+    }
+
+    @Test
+    void ndjsonWritesOneEscapedObjectPerLine() throws IOException {
+        String ndjson = export(TaskHistoryExportService.Format.NDJSON, "oldest");
+
+        String[] lines = ndjson.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(ndjson).endsWith("\n");
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("id").asText()).isEqualTo(quoted.getId());
+        assertThat(first.get("title").asText()).isEqualTo(TITLE);
+        assertThat(first.get("completionNote").asText()).isEqualTo(NOTE);
+        assertThat(first.get("timeSpent").asInt()).isEqualTo(45);
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertThat(second.get("id").asText()).isEqualTo(plain.getId());
+        assertThat(second.get("timeSpent").isNull()).isTrue();
+    }
+
+    @Test
+    void unknownFormatIsRejected() {
+        assertThatThrownBy(() -> TaskHistoryExportService.Format.of("xml"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TaskHistoryExportService.Format.of(null))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(TaskHistoryExportService.Format.of("Csv")).isEqualTo(TaskHistoryExportService.Format.CSV);
+    }
+
+    private String export(TaskHistoryExportService.Format format, String sortBy) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(TaskHistoryFilterRequest.builder().sortBy(sortBy).build(), format).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private Task createTask(String title, String category) {
+        TaskDTO dto = new TaskDTO();
+        dto.setTitle(title);
+        dto.setCategory(category);
+        dto.setFrequency("Daily");
+        return taskService.createTask(dto);
+    }
+
+    private Task complete(Task task, String note, Integer minutes) {
+        taskService.completeTask(task.getId(), new CompleteTaskRequest(note, minutes));
+        // Reads back the stored completedAt, which Mongo keeps at millisecond precision
+        return taskService.getTaskById(task.getId());
+    }
+}
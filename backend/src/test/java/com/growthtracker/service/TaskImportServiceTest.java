@@ -0,0 +1,150 @@
+package com.growthtracker.service;
+
+import com.growthtracker.MongoIntegrationTest;
+import com.growthtracker.dto.TaskDTO;
+import com.growthtracker.dto.TaskImportResultDTO;
+import com.growthtracker.model.Priority;
+import com.growthtracker.model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+class TaskImportServiceTest extends MongoIntegrationTest {
+
+    @Autowired
+    private TaskImportService taskImportService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskCatalog taskCatalog;
+
+    @SpyBean
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void bindUser() {
+        UserScope.bind("import-" + UUID.randomUUID());
+    }
+
+    @AfterEach
+    void clearUser() {
+        UserScope.clear();
+    }
+
+    @Test
+    void aTitleRepeatedInTheFileIsImportedOnce() {
+        TaskImportResultDTO result = taskImportService.importJson(Arrays.asList(
+            dto("Run"), dto("Read"), dto("Run"), null, dto("")));
+
+        assertThat(result.getRows())
+            .extracting(TaskImportResultDTO.Row::getLine, TaskImportResultDTO.Row::getStatus)
+            .containsExactly(
+                tuple(1, TaskImportResultDTO.Status.CREATED),
+                tuple(2, TaskImportResultDTO.Status.CREATED),
+                tuple(3, TaskImportResultDTO.Status.DUPLICATE),
+                tuple(4, TaskImportResultDTO.Status.INVALID),
+                tuple(5, TaskImportResultDTO.Status.INVALID));
+        assertThat(result.getRows().get(2).getError()).isEqualTo("Title appears earlier in this import");
+        assertThat(result.getRows().get(2).getTaskId()).isNull();
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getDuplicates()).isEqualTo(1);
+        assertThat(result.getInvalid()).isEqualTo(2);
+        assertThat(storedWithTitle("Run")).isEqualTo(1);
+    }
+
+    @Test
+    void aTitleAlreadyInTheDatabaseIsADuplicate() {
+        Task existing = taskService.createTask(dto("Run"));
+
+        TaskImportResultDTO result = taskImportService.importCsv(
+            "title,category,frequency\nRun,Health,Daily\nRead,Learning,Daily\n");
+
+        assertThat(result.getRows())
+            .extracting(TaskImportResultDTO.Row::getLine, TaskImportResultDTO.Row::getStatus,
+                TaskImportResultDTO.Row::getError)
+            .containsExactly(
+                tuple(2, TaskImportResultDTO.Status.DUPLICATE, "A task with this title already exists"),
+                tuple(3, TaskImportResultDTO.Status.CREATED, null));
+        assertThat(storedWithTitle("Run")).isEqualTo(1);
+        assertThat(taskCatalog.findById(existing.getId())).isPresent();
+        assertThat(taskCatalog.findById(result.getRows().get(1).getTaskId())).isPresent();
+    }
+
+    @Test
+    void aTitleInsertedConcurrentlyIsADuplicate() {
+        // Another request creates "Run" after the import checked the existing titles
+        doAnswer(call -> {
+            Object found = call.callRealMethod();
+            taskService.createTask(dto("Run"));
+            return found;
+        }).when(mongoTemplate).find(any(Query.class), eq(Task.class));
+
+        TaskImportResultDTO result = taskImportService.importJson(Arrays.asList(dto("Run"), dto("Read")));
+
+        assertThat(result.getRows())
+            .extracting(TaskImportResultDTO.Row::getStatus, TaskImportResultDTO.Row::getError)
+            .containsExactly(
+                tuple(TaskImportResultDTO.Status.DUPLICATE, "A task with this title already exists"),
+                tuple(TaskImportResultDTO.Status.CREATED, null));
+        assertThat(result.getRows().get(0).getTaskId()).isNull();
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(storedWithTitle("Run")).isEqualTo(1);
+        assertThat(taskCatalog.all()).extracting(Task::getTitle).containsExactlyInAnyOrder("Run", "Read");
+    }
+
+    @Test
+    void splitsPlainFields() {
+        assertThat(TaskImportService.parseCsvLine("Run,Health,Daily"))
+            .containsExactly("Run", "Health", "Daily");
+    }
+
+    @Test
+    void keepsEmptyFields() {
+        assertThat(TaskImportService.parseCsvLine(",Health,,"))
+            .containsExactly("", "Health", "", "");
+    }
+
+    @Test
+    void quotedFieldsMayContainCommasAndEscapedQuotes() {
+        assertThat(TaskImportService.parseCsvLine("\"Read, then write\",\"Say \"\"hi\"\"\",Daily"))
+            .containsExactly("Read, then write", "Say \"hi\"", "Daily");
+    }
+
+    @Test
+    void rejectsAnUnterminatedQuote() {
+        assertThatThrownBy(() -> TaskImportService.parseCsvLine("\"Run,Health"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Unterminated");
+    }
+
+    private long storedWithTitle(String title) {
+        return mongoTemplate.count(new Query(Criteria.where("userId").is(UserScope.currentUserId())
+            .and("title").is(title)), Task.class);
+    }
+
+    private static TaskDTO dto(String title) {
+        TaskDTO dto = new TaskDTO();
+        dto.setTitle(title);
+        dto.setCategory("Test");
+        dto.setFrequency("Daily");
+        dto.setPriority(Priority.MEDIUM);
+        return dto;
+    }
+}
@@ -0,0 +1,249 @@
+package com.growthtracker.service;
+
+import com.growthtracker.MongoIntegrationTest;
+import com.growthtracker.dto.CompleteTaskRequest;
+import com.growthtracker.dto.TaskDTO;
+import com.growthtracker.dto.TaskHistoryFacetsDTO;
+import com.growthtracker.dto.TaskHistoryFilterRequest;
+import com.growthtracker.dto.TaskHistoryPageDTO;
+import com.growthtracker.dto.TaskPageDTO;
+import com.growthtracker.exception.ResourceNotFoundException;
+import com.growthtracker.exception.TaskAlreadyCompletedException;
+import com.growthtracker.model.Priority;
+import com.growthtracker.model.Task;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskServiceTest extends MongoIntegrationTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskCatalog taskCatalog;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @AfterEach
+    void clearUser() {
+        UserScope.clear();
+    }
+
+    @Test
+    void historyCursorKeepsRowsThatTieOnCompletedAtAcrossPages() {
+        String category = "Keyset " + UUID.randomUUID();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(createTask(category).getId());
+        }
+        // Every row completes at the same instant, so only _id orders them
+        mongoTemplate.updateMulti(new Query(Criteria.where("category").is(category)),
+            new Update().set("status", "COMPLETED").set("completedAt", LocalDateTime.of(2024, 4, 1, 9, 30)),
+            Task.class);
+
+        for (String sortBy : List.of("latest", "oldest")) {
+            List<String> seen = new ArrayList<>();
+            String cursor = null;
+            do {
+                TaskHistoryPageDTO page = taskService.getTaskHistoryPage(TaskHistoryFilterRequest.builder()
+                    .category(category).sortBy(sortBy).size(2).cursor(cursor).build());
+                page.getContent().forEach(task -> seen.add(task.getId()));
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+
+            assertThat(seen).as(sortBy).containsExactlyInAnyOrderElementsOf(ids);
+        }
+    }
+
+    @Test
+    void historyPageSizeIsCapped() {
+        TaskHistoryPageDTO page = taskService.getTaskHistoryPage(TaskHistoryFilterRequest.builder()
+            .category("Keyset " + UUID.randomUUID()).size(Integer.MAX_VALUE).build());
+
+        assertThat(page.getContent()).isEmpty();
+        assertThat(page.isHasNext()).isFalse();
+    }
+
+    @Test
+    void historyFacetsPageSizeIsCapped() {
+        TaskHistoryFacetsDTO facets = taskService.getTaskHistoryFacets(TaskHistoryFilterRequest.builder()
+            .category("Facets " + UUID.randomUUID()).size(10_000).build());
+
+        assertThat(facets.getSize()).isEqualTo(200);
+        assertThat(facets.getTotalElements()).isZero();
+    }
+
+    @Test
+    void updateTaskReturnsTheStoredStatus() {
+        Task task = createTask("Update " + UUID.randomUUID());
+        taskService.completeTask(task.getId(), new CompleteTaskRequest("done", 30));
+
+        TaskDTO dto = new TaskDTO();
+        dto.setTitle(task.getTitle());
+        dto.setCategory("Renamed " + UUID.randomUUID());
+        dto.setFrequency("Weekly");
+        Task updated = taskService.updateTask(task.getId(), dto);
+
+        assertThat(updated.getStatus()).isEqualTo("COMPLETED");
+        assertThat(updated.getCategory()).isEqualTo(dto.getCategory());
+        assertThat(taskCatalog.findById(task.getId())).get().extracting(Task::getStatus).isEqualTo("COMPLETED");
+    }
+
+    @Test
+    void updateTaskTakesTheOldCategoryFromTheStoredTask() {
+        Task task = createTask("Update " + UUID.randomUUID());
+        // Another instance moved the task; this instance's catalog still has the old category
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(task.getId())),
+            new Update().set("category", "Moved"), Task.class);
+
+        TaskDTO dto = new TaskDTO();
+        dto.setTitle(task.getTitle());
+        dto.setCategory("Final");
+        dto.setFrequency("Daily");
+        Task updated = taskService.updateTask(task.getId(), dto);
+
+        assertThat(updated.getCategory()).isEqualTo("Final");
+        assertThat(mongoTemplate.findById(task.getId(), Task.class).getCategory()).isEqualTo("Final");
+        assertThat(taskCatalog.findById(task.getId()).orElseThrow().getCategory()).isEqualTo("Final");
+    }
+
+    @Test
+    void updateTaskOfAMissingTaskIsNotFound() {
+        TaskDTO dto = new TaskDTO();
+        dto.setTitle("Missing " + UUID.randomUUID());
+        dto.setCategory("Test");
+        dto.setFrequency("Daily");
+
+        assertThatThrownBy(() -> taskService.updateTask(new ObjectId().toHexString(), dto))
+            .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void completingACompletedTaskIsAConflict() {
+        Task task = createTask("Complete " + UUID.randomUUID());
+        taskService.completeTask(task.getId(), new CompleteTaskRequest("done", 30));
+
+        assertThatThrownBy(() -> taskService.completeTask(task.getId(), new CompleteTaskRequest("again", 5)))
+            .isInstanceOf(TaskAlreadyCompletedException.class);
+        assertThat(mongoTemplate.findById(task.getId(), Task.class).getTimeSpent()).isEqualTo(30);
+    }
+
+    @Test
+    void tasksPagesFollowTheDashboardOrder() {
+        UserScope.bind("paging-" + UUID.randomUUID());
+        Task low = createTask("Paging", Priority.LOW);
+        Task urgent = createTask("Paging", Priority.URGENT);
+        Task firstMedium = createTask("Paging", Priority.MEDIUM);
+        Task high = createTask("Paging", Priority.HIGH);
+        Task secondMedium = createTask("Paging", Priority.MEDIUM);
+        // Completed tasks come after every pending one, whatever their priority
+        taskService.completeTask(urgent.getId(), new CompleteTaskRequest("done", null));
+
+        List<List<String>> pages = new ArrayList<>();
+        List<Boolean> hasNext = new ArrayList<>();
+        for (int page = 0; page < 4; page++) {
+            TaskPageDTO dto = taskService.getTasksPage(page, 2);
+            assertThat(dto.getPage()).isEqualTo(page);
+            assertThat(dto.getSize()).isEqualTo(2);
+            assertThat(dto.getTotalElements()).isEqualTo(5);
+            pages.add(dto.getContent().stream().map(Task::getId).toList());
+            hasNext.add(dto.isHasNext());
+        }
+
+        assertThat(pages).containsExactly(
+            List.of(high.getId(), firstMedium.getId()),
+            List.of(secondMedium.getId(), low.getId()),
+            List.of(urgent.getId()),
+            List.of());
+        assertThat(hasNext).containsExactly(true, true, false, false);
+    }
+
+    @Test
+    void aPageThatEndsExactlyAtTheLastTaskHasNoNext() {
+        UserScope.bind("paging-" + UUID.randomUUID());
+        for (int i = 0; i < 4; i++) {
+            createTask("Paging", Priority.MEDIUM);
+        }
+
+        TaskPageDTO all = taskService.getTasksPage(0, 4);
+        assertThat(all.getContent()).hasSize(4);
+        assertThat(all.isHasNext()).isFalse();
+        assertThat(taskService.getTasksPage(1, 2).isHasNext()).isFalse();
+        assertThat(taskService.getTasksPage(0, 3).isHasNext()).isTrue();
+    }
+
+    @Test
+    void tasksPageRejectsInvalidArguments() {
+        assertThatThrownBy(() -> taskService.getTasksPage(-1, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> taskService.getTasksPage(0, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> taskService.getTasksPage(0, 201)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // mongo-java-server has no $text, so the keyword path is checked on the query it builds
+
+    @Test
+    void keywordSearchSortsByTextScoreByDefault() {
+        for (String sortBy : Arrays.asList(null, "", "RELEVANCE")) {
+            Query query = TaskService.historyQuery(TaskHistoryFilterRequest.builder()
+                .searchKeyword("morning run").sortBy(sortBy).category("Fitness").build());
+
+            assertThat(query.getQueryObject().get("$text", Document.class).getString("$search"))
+                .as("sortBy %s", sortBy).isEqualTo("morning run");
+            assertThat(query.getQueryObject()).containsEntry("userId", UserScope.DEFAULT_USER_ID)
+                .containsEntry("status", "COMPLETED").containsEntry("category", "Fitness");
+            assertThat(query.getSortObject()).containsOnlyKeys("score");
+            assertThat(query.getFieldsObject().get("score", Document.class)).containsEntry("$meta", "textScore");
+        }
+    }
+
+    @Test
+    void keywordSearchWithAnExplicitOrderKeepsThatOrder() {
+        Query query = TaskService.historyQuery(TaskHistoryFilterRequest.builder()
+            .searchKeyword("run").sortBy("oldest").build());
+
+        assertThat(query.getQueryObject()).containsKey("$text");
+        assertThat(query.getSortObject()).isEqualTo(new Query().with(HistoryKeyset.of("oldest").sort()).getSortObject());
+    }
+
+    @Test
+    void historyWithoutAKeywordHasNoTextClause() {
+        Query query = TaskService.historyQuery(TaskHistoryFilterRequest.builder().sortBy("relevance").build());
+
+        assertThat(query.getQueryObject()).doesNotContainKey("$text");
+        assertThat(query.getSortObject()).isEqualTo(new Query().with(HistoryKeyset.of(null).sort()).getSortObject());
+    }
+
+    private Task createTask(String category, Priority priority) {
+        TaskDTO dto = new TaskDTO();
+        dto.setTitle("Paging " + UUID.randomUUID());
+        dto.setCategory(category);
+        dto.setFrequency("Daily");
+        dto.setPriority(priority);
+        return taskService.createTask(dto);
+    }
+
+    private Task createTask(String category) {
+        TaskDTO dto = new TaskDTO();
+        dto.setTitle("History " + UUID.randomUUID());
+        dto.setCategory(category);
+        dto.setFrequency("Daily");
+        return taskService.createTask(dto);
+    }
+}
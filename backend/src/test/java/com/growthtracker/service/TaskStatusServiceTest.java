@@ -0,0 +1,203 @@
+package com.growthtracker.service;
+
+import com.growthtracker.MongoIntegrationTest;
+import com.growthtracker.dto.BatchStatusRequest;
+import com.growthtracker.dto.BatchStatusResultDTO;
+import com.growthtracker.dto.TaskDTO;
+import com.growthtracker.model.Task;
+import com.growthtracker.model.TaskStatus;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class TaskStatusServiceTest extends MongoIntegrationTest {
+
+    private static final int THREADS = 16;
+    private static final int DATES = 20;
+
+    @Autowired
+    private TaskStatusService taskStatusService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private SummaryRecomputeQueue summaryRecomputeQueue;
+
+    @Autowired
+    private CompletionBitmapIndex completionBitmapIndex;
+
+    @SpyBean
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    void concurrentMarkStatusOnOnePairKeepsOneDocument() throws Exception {
+        Task task = createTask();
+        LocalDate firstDate = LocalDate.of(2024, 1, 1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int d = 0; d < DATES; d++) {
+                LocalDate date = firstDate.plusDays(d);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<TaskStatus>> calls = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    calls.add(pool.submit(() -> {
+                        start.await();
+                        return taskStatusService.markStatus(task.getId(), date, true);
+                    }));
+                }
+                start.countDown();
+                // get() rethrows any exception from markStatus, e.g. a DuplicateKeyException
+                for (Future<TaskStatus> call : calls) {
+                    TaskStatus saved = call.get();
+                    assertThat(saved.getTaskId()).isEqualTo(task.getId());
+                    assertThat(saved.isCompleted()).isTrue();
+                }
+
+                long documents = mongoTemplate.count(
+                    new Query(Criteria.where("taskId").is(task.getId()).and("date").is(date)), TaskStatus.class);
+                assertThat(documents).as("status documents for %s", date).isEqualTo(1);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentTogglesLeaveTheProjectionsMatchingTheStoredStatus() throws Exception {
+        Task task = createTask();
+        LocalDate firstDate = LocalDate.now().minusDays(DATES);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int d = 0; d < DATES; d++) {
+                LocalDate date = firstDate.plusDays(d);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<TaskStatus>> calls = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    boolean completed = t % 2 == 0;
+                    calls.add(pool.submit(() -> {
+                        start.await();
+                        return taskStatusService.markStatus(task.getId(), date, completed);
+                    }));
+                }
+                start.countDown();
+                for (Future<TaskStatus> call : calls) {
+                    call.get();
+                }
+
+                TaskStatus stored = mongoTemplate.findOne(
+                    new Query(Criteria.where("taskId").is(task.getId()).and("date").is(date)), TaskStatus.class);
+                assertThat(completionBitmapIndex.isCompleted(task.getId(), date))
+                    .as("bitmap on %s", date).isEqualTo(stored.isCompleted());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * The in-memory test server applies writes one at a time, so the concurrent test
+     * above may never lose the upsert race; this forces the losing side's error.
+     */
+    @Test
+    void markStatusRetriesAnUpsertThatLostTheRace() {
+        Task task = createTask();
+        LocalDate date = LocalDate.of(2024, 3, 1);
+        // Mockito stubbing is not safe while recompute workers are still calling the spy
+        summaryRecomputeQueue.flushAll().join();
+        doThrow(new DuplicateKeyException("E11000 duplicate key error"))
+            .doCallRealMethod()
+            .when(mongoTemplate).findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(TaskStatus.class));
+
+        TaskStatus saved = taskStatusService.markStatus(task.getId(), date, true);
+
+        assertThat(saved.isCompleted()).isTrue();
+        verify(mongoTemplate, times(2)).findAndModify(any(Query.class), any(Update.class),
+            any(FindAndModifyOptions.class), eq(TaskStatus.class));
+        assertThat(mongoTemplate.count(
+            new Query(Criteria.where("taskId").is(task.getId()).and("date").is(date)), TaskStatus.class))
+            .isEqualTo(1);
+    }
+
+    @Test
+    void markStatusBatchRetriesAnUpsertThatLostTheRace() {
+        Task task = createTask();
+        LocalDate date = LocalDate.of(2024, 3, 2);
+        summaryRecomputeQueue.flushAll().join();
+        // The bulk write goes through, but reports its only op as a lost insert race
+        doAnswer(invocation -> {
+            BulkOperations bulk = spy((BulkOperations) invocation.callRealMethod());
+            doAnswer(execute -> {
+                execute.callRealMethod();
+                throw new BulkOperationException("E11000", new MongoBulkWriteException(
+                    BulkWriteResult.unacknowledged(),
+                    List.of(new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), 0)),
+                    null, new ServerAddress()));
+            }).when(bulk).execute();
+            return bulk;
+        }).when(mongoTemplate).bulkOps(BulkOperations.BulkMode.UNORDERED, TaskStatus.class);
+
+        BatchStatusRequest request = new BatchStatusRequest(List.of(
+            BatchStatusRequest.Entry.builder().taskId(task.getId()).date(date).completed(true).build()));
+        List<BatchStatusResultDTO> results = taskStatusService.markStatusBatch(request);
+
+        assertThat(results).singleElement().satisfies(result -> assertThat(result.isSuccess()).isTrue());
+        assertThat(mongoTemplate.count(
+            new Query(Criteria.where("taskId").is(task.getId()).and("date").is(date)), TaskStatus.class))
+            .isEqualTo(1);
+    }
+
+    @Test
+    void markStatusTogglesTheExistingDocument() {
+        Task task = createTask();
+        LocalDate date = LocalDate.of(2024, 2, 1);
+
+        TaskStatus first = taskStatusService.markStatus(task.getId(), date, true);
+        TaskStatus second = taskStatusService.markStatus(task.getId(), date, false);
+
+        assertThat(second.getId()).isEqualTo(first.getId());
+        assertThat(second.isCompleted()).isFalse();
+    }
+
+    private Task createTask() {
+        TaskDTO dto = new TaskDTO();
+        dto.setTitle("Concurrency " + UUID.randomUUID());
+        dto.setCategory("Test");
+        dto.setFrequency("Daily");
+        return taskService.createTask(dto);
+    }
+}
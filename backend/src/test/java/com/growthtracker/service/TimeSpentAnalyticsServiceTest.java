@@ -0,0 +1,165 @@
+package com.growthtracker.service;
+
+import com.growthtracker.MongoIntegrationTest;
+import com.growthtracker.config.UserIdFilter;
+import com.growthtracker.dto.CompleteTaskRequest;
+import com.growthtracker.dto.TaskDTO;
+import com.growthtracker.dto.TimeSpentAnalyticsDTO;
+import com.growthtracker.model.Task;
+import com.growthtracker.model.TimeSpentSketch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+class TimeSpentAnalyticsServiceTest extends MongoIntegrationTest {
+
+    @Autowired
+    private TimeSpentAnalyticsService timeSpentAnalyticsService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @AfterEach
+    void clearUser() {
+        UserScope.clear();
+    }
+
+    @Test
+    void completionsAreRecordedOverallPerCategoryAndPerWeek() {
+        bindNewUser();
+        complete(createTask("Reading"), 10);
+        complete(createTask("Reading"), 20);
+        complete(createTask("Fitness"), 30);
+        createTask("Fitness");
+
+        TimeSpentAnalyticsDTO analytics = analyticsForToday();
+
+        assertStats(analytics.getOverall(), 3, 60, 10, 30);
+        assertStats(analytics.getRange(), 3, 60, 10, 30);
+        assertThat(analytics.getByCategory()).containsOnlyKeys("Reading", "Fitness");
+        assertStats(analytics.getByCategory().get("Reading"), 2, 30, 10, 20);
+        assertStats(analytics.getByCategory().get("Fitness"), 1, 30, 30, 30);
+        assertThat(analytics.getWeekly()).containsOnlyKeys(thisMonday());
+        assertThat(analytics.getOverall().getP50()).isEqualTo(20);
+    }
+
+    @Test
+    void deletingTheLargestCompletionTightensTheBounds() {
+        bindNewUser();
+        complete(createTask("Reading"), 5);
+        Task large = complete(createTask("Reading"), 1_000);
+
+        taskService.deleteTask(large.getId());
+
+        TimeSpentAnalyticsDTO analytics = analyticsForToday();
+        assertStats(analytics.getOverall(), 1, 5, 5, 5);
+        assertThat(analytics.getOverall().getP99()).isEqualTo(5);
+        assertStats(analytics.getByCategory().get("Reading"), 1, 5, 5, 5);
+    }
+
+    @Test
+    void changingTheCategoryMovesTheTime() {
+        bindNewUser();
+        Task task = complete(createTask("Reading"), 40);
+
+        TaskDTO dto = new TaskDTO();
+        dto.setTitle(task.getTitle());
+        dto.setCategory("Fitness");
+        dto.setFrequency(task.getFrequency());
+        taskService.updateTask(task.getId(), dto);
+
+        TimeSpentAnalyticsDTO analytics = analyticsForToday();
+        assertThat(analytics.getByCategory()).containsOnlyKeys("Fitness");
+        assertStats(analytics.getByCategory().get("Fitness"), 1, 40, 40, 40);
+        assertStats(analytics.getOverall(), 1, 40, 40, 40);
+    }
+
+    @Test
+    void rebuildReplacesSketchesAndDropsStaleOnes() {
+        String userId = bindNewUser();
+        complete(createTask("Reading"), 10);
+        complete(createTask("Reading"), 20);
+        // Drifted and orphaned sketches the rebuild must repair
+        mongoTemplate.save(TimeSpentSketch.builder()
+            .id(UserScope.key(userId, "all")).userId(userId)
+            .buckets(Map.of(String.valueOf(TimeSpentHistogram.bucketOf(500)), 7L))
+            .count(7).total(3_500).min(500).max(500).build());
+        mongoTemplate.save(TimeSpentSketch.builder()
+            .id(UserScope.key(userId, "category:Gone")).userId(userId)
+            .buckets(Map.of("3", 1L)).count(1).total(3).min(3).max(3).build());
+
+        timeSpentAnalyticsService.rebuild();
+
+        TimeSpentAnalyticsDTO analytics = analyticsForToday();
+        assertStats(analytics.getOverall(), 2, 30, 10, 20);
+        assertThat(analytics.getByCategory()).containsOnlyKeys("Reading");
+        assertThat(mongoTemplate.findById(UserScope.key(userId, "category:Gone"), TimeSpentSketch.class)).isNull();
+    }
+
+    @Test
+    void aNegativeTimeSpentIsRejected() throws Exception {
+        String userId = bindNewUser();
+        Task task = createTask("Reading");
+
+        mockMvc.perform(put("/api/tasks/{id}/complete", task.getId())
+                .header(UserIdFilter.HEADER, userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"note\":\"done\",\"timeSpent\":-5}"))
+            .andExpect(status().isBadRequest());
+    }
+
+    private TimeSpentAnalyticsDTO analyticsForToday() {
+        LocalDate today = LocalDate.now();
+        return timeSpentAnalyticsService.getAnalytics(today, today);
+    }
+
+    private static void assertStats(TimeSpentAnalyticsDTO.Stats stats, long count, long total, int min, int max) {
+        assertThat(stats.getCount()).isEqualTo(count);
+        assertThat(stats.getTotal()).isEqualTo(total);
+        assertThat(stats.getMin()).isEqualTo(min);
+        assertThat(stats.getMax()).isEqualTo(max);
+    }
+
+    private static String thisMonday() {
+        return LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).toString();
+    }
+
+    private String bindNewUser() {
+        String userId = "time-" + UUID.randomUUID();
+        UserScope.bind(userId);
+        return userId;
+    }
+
+    private Task createTask(String category) {
+        TaskDTO dto = new TaskDTO();
+        dto.setTitle("Time " + UUID.randomUUID());
+        dto.setCategory(category);
+        dto.setFrequency("Daily");
+        return taskService.createTask(dto);
+    }
+
+    private Task complete(Task task, int minutes) {
+        return taskService.completeTask(task.getId(), new CompleteTaskRequest("done", minutes));
+    }
+}
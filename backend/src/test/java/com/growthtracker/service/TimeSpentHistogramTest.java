@@ -0,0 +1,113 @@
+package com.growthtracker.service;
+
+import com.growthtracker.model.TimeSpentSketch;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeSpentHistogramTest {
+
+    @Test
+    void smallValuesHaveExactBuckets() {
+        for (int v = 0; v < 16; v++) {
+            assertThat(TimeSpentHistogram.bucketOf(v)).isEqualTo(v);
+            assertThat(TimeSpentHistogram.lowerBound(v)).isEqualTo(v);
+            assertThat(TimeSpentHistogram.upperBound(v)).isEqualTo(v);
+        }
+        assertThat(TimeSpentHistogram.bucketOf(-5)).isZero();
+    }
+
+    @Test
+    void everyValueFallsInsideItsBucketBounds() {
+        int[] samples = {16, 17, 31, 32, 45, 100, 1_000, 65_535, 1 << 20, Integer.MAX_VALUE};
+        for (int v : samples) {
+            int bucket = TimeSpentHistogram.bucketOf(v);
+            assertThat(bucket).isBetween(0, TimeSpentHistogram.BUCKETS - 1);
+            assertThat(TimeSpentHistogram.lowerBound(bucket)).isLessThanOrEqualTo(v);
+            assertThat(TimeSpentHistogram.upperBound(bucket)).isGreaterThanOrEqualTo(v);
+        }
+    }
+
+    @Test
+    void bucketsAreContiguousAndMonotonic() {
+        for (int bucket = 1; bucket < TimeSpentHistogram.BUCKETS; bucket++) {
+            assertThat(TimeSpentHistogram.lowerBound(bucket))
+                .isEqualTo(TimeSpentHistogram.upperBound(bucket - 1) + 1);
+        }
+    }
+
+    @Test
+    void bucketWidthIsAtMostAnEighthOfItsValue() {
+        for (int bucket = 16; bucket < TimeSpentHistogram.BUCKETS; bucket++) {
+            long width = (long) TimeSpentHistogram.upperBound(bucket) - TimeSpentHistogram.lowerBound(bucket) + 1;
+            assertThat(width * 8).isLessThanOrEqualTo(TimeSpentHistogram.lowerBound(bucket));
+        }
+    }
+
+    @Test
+    void percentilesOfAnEmptyHistogramAreNull() {
+        TimeSpentHistogram histogram = new TimeSpentHistogram();
+        assertThat(histogram.percentile(0.5)).isNull();
+        assertThat(histogram.mean()).isZero();
+    }
+
+    @Test
+    void percentilesAreEstimatedFromMergedSketches() {
+        TimeSpentHistogram histogram = new TimeSpentHistogram();
+        // 90 values of 10 and 10 values of 100, split across two sketches
+        histogram.merge(sketch(10, 50, 100, 0));
+        histogram.merge(sketch(10, 40, 100, 10));
+
+        assertThat(histogram.count()).isEqualTo(100);
+        assertThat(histogram.total()).isEqualTo(90 * 10 + 10 * 100);
+        assertThat(histogram.min()).isEqualTo(10);
+        assertThat(histogram.max()).isEqualTo(100);
+        assertThat(histogram.percentile(0.50)).isEqualTo(10);
+        assertThat(histogram.percentile(0.90)).isEqualTo(10);
+        // 100 lands in bucket [96, 103]; the midpoint is clamped to the observed max
+        assertThat(histogram.percentile(0.99)).isEqualTo(99);
+        assertThat(histogram.percentile(1.0)).isEqualTo(99);
+    }
+
+    @Test
+    void percentileIsClampedToTheObservedRange() {
+        TimeSpentHistogram histogram = new TimeSpentHistogram();
+        histogram.merge(sketch(1_000, 1, 1_000, 0));
+
+        assertThat(histogram.percentile(0.5)).isEqualTo(1_000);
+    }
+
+    @Test
+    void boundsTightenToTheBucketsLeftAfterARemoval() {
+        TimeSpentHistogram histogram = new TimeSpentHistogram();
+        // 5 and 1000 were added, then 1000 was removed: the stored max still says 1000
+        TimeSpentSketch sketch = sketch(5, 1, 1_000, 0);
+        sketch.setMax(1_000);
+        histogram.merge(sketch);
+
+        assertThat(histogram.min()).isEqualTo(5);
+        assertThat(histogram.max()).isEqualTo(5);
+        assertThat(histogram.percentile(0.99)).isEqualTo(5);
+    }
+
+    /** Sketch holding lowCount values of low and highCount values of high. */
+    private static TimeSpentSketch sketch(int low, int lowCount, int high, int highCount) {
+        Map<String, Long> buckets = new HashMap<>();
+        if (lowCount > 0) {
+            buckets.merge(String.valueOf(TimeSpentHistogram.bucketOf(low)), (long) lowCount, Long::sum);
+        }
+        if (highCount > 0) {
+            buckets.merge(String.valueOf(TimeSpentHistogram.bucketOf(high)), (long) highCount, Long::sum);
+        }
+        return TimeSpentSketch.builder()
+            .buckets(buckets)
+            .count(lowCount + highCount)
+            .total((long) low * lowCount + (long) high * highCount)
+            .min(lowCount > 0 ? low : high)
+            .max(highCount > 0 ? high : low)
+            .build();
+    }
+}
@@ -0,0 +1,106 @@
+package com.growthtracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void loadsAUserOnceOnFirstAccess() {
+        UserCache<List<String>> cache = cache(10, Duration.ofMinutes(5));
+
+        assertThat(cache.get("alice")).containsExactly("alice#1");
+        assertThat(cache.get("alice")).containsExactly("alice#1");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void updateSkipsAUserThatIsNotLoaded() {
+        UserCache<List<String>> cache = cache(10, Duration.ofMinutes(5));
+
+        cache.update("alice", list -> {
+            list.add("change");
+            return list;
+        });
+
+        assertThat(loads).hasValue(0);
+        assertThat(cache.get("alice")).containsExactly("alice#1");
+    }
+
+    @Test
+    void updateChangesALoadedUser() {
+        UserCache<List<String>> cache = cache(10, Duration.ofMinutes(5));
+        cache.get("alice");
+
+        cache.update("alice", list -> {
+            list.add("change");
+            return list;
+        });
+
+        assertThat(cache.get("alice")).containsExactly("alice#1", "change");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void aChangeDuringALoadMakesItReadAgain() {
+        UserCache<List<String>>[] holder = new UserCache[1];
+        holder[0] = new UserCache<>("test", 10, Duration.ofMinutes(5), userId -> {
+            int n = loads.incrementAndGet();
+            if (n == 1) {
+                // A write lands after this load has read Mongo
+                holder[0].invalidate(userId);
+            }
+            return new ArrayList<>(List.of(userId + "#" + n));
+        });
+
+        assertThat(holder[0].get("alice")).containsExactly("alice#2");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void invalidateReloadsOnNextAccess() {
+        UserCache<List<String>> cache = cache(10, Duration.ofMinutes(5));
+        cache.get("alice");
+
+        cache.invalidate("alice");
+
+        assertThat(cache.get("alice")).containsExactly("alice#2");
+    }
+
+    @Test
+    void expiredValuesAreReloaded() {
+        UserCache<List<String>> cache = cache(10, Duration.ZERO);
+
+        cache.get("alice");
+
+        assertThat(cache.get("alice")).containsExactly("alice#2");
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedUserBeyondTheBound() {
+        UserCache<List<String>> cache = cache(2, Duration.ofMinutes(5));
+        cache.get("alice");
+        cache.get("bob");
+        cache.get("alice");
+
+        cache.get("carol");
+
+        assertThat(loads).hasValue(3);
+        cache.get("alice");
+        assertThat(loads).hasValue(3);
+        assertThat(cache.get("bob")).containsExactly("bob#4");
+    }
+
+    private UserCache<List<String>> cache(int maxUsers, Duration ttl) {
+        return new UserCache<>("test", maxUsers, ttl,
+            userId -> new ArrayList<>(List.of(userId + "#" + loads.incrementAndGet())));
+    }
+}
@@ -0,0 +1,30 @@
+package com.growthtracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserScopeTest {
+
+    @Test
+    void keyAlwaysCarriesTheUser() {
+        assertThat(UserScope.key("alice", "2024-01-01")).isEqualTo("alice:2024-01-01");
+        assertThat(UserScope.key(UserScope.DEFAULT_USER_ID, "all")).isEqualTo("default:all");
+    }
+
+    @Test
+    void keysOfDifferentUsersCannotCollide() {
+        // "category" + "all" used to equal the default user's bare "category:all"
+        assertThat(UserScope.key("category", "all"))
+            .isNotEqualTo(UserScope.key(UserScope.DEFAULT_USER_ID, "category:all"));
+    }
+
+    @Test
+    void isValidRejectsTheSeparatorAndOddInput() {
+        assertThat(UserScope.isValid("alice.smith@example-1_x")).isTrue();
+        assertThat(UserScope.isValid("a:b")).isFalse();
+        assertThat(UserScope.isValid("")).isFalse();
+        assertThat(UserScope.isValid(null)).isFalse();
+        assertThat(UserScope.isValid("x".repeat(65))).isFalse();
+    }
+}
@@ -3,9 +3,24 @@ import api from './api';
 export const getWeeklyAnalytics = () =>
     api.get('/analytics/weekly').then(r => r.data);
 
+export const getRangeAnalytics = (from, to) =>
+    api.get('/analytics', { params: { from, to } }).then(r => r.data);
+
 export const getCategoryAnalytics = () =>
     api.get('/analytics/category').then(r => r.data);
 
+export const getCategoryTrend = (from, to, granularity = 'day') =>
+    api.get('/analytics/category/trend', { params: { from, to, granularity } }).then(r => r.data);
+
+export const getHeatmap = (from, to, encoding = 'packed') =>
+    api.get('/analytics/heatmap', { params: { from, to, encoding } }).then(r => r.data);
+
+export const getTaskHeatmap = (taskId, from, to, encoding = 'packed') =>
+    api.get(`/analytics/heatmap/task/${taskId}`, { params: { from, to, encoding } }).then(r => r.data);
+
+export const getTimeSpentAnalytics = (from, to) =>
+    api.get('/analytics/time-spent', { params: { from, to } }).then(r => r.data);
+
 export const getSuggestion = () =>
     api.get('/analytics/suggestions').then(r => r.data);
 
@@ -6,6 +6,25 @@ const api = axios.create({
   timeout: 10000,
 });
 
+// The backend requires X-User-Id; 'default' owns the data from before multi-user support.
+// The header is not a credential: deployments that need access control put an
+// authenticating gateway in front of the API that signs it (X-User-Signature).
+const DEFAULT_USER_ID = 'default';
+
+// Acts for the user stored under 'userId', or the default user when none is stored
+export const setUserId = (userId) => {
+  if (userId) {
+    localStorage.setItem('userId', userId);
+  } else {
+    localStorage.removeItem('userId');
+  }
+};
+
+api.interceptors.request.use((config) => {
+  config.headers['X-User-Id'] = localStorage.getItem('userId') || DEFAULT_USER_ID;
+  return config;
+});
+
 api.interceptors.response.use(
   (response) => response,
   (error) => {
@@ -8,3 +8,9 @@ export const markStatus = (taskId, date, completed) =>
 
 export const getDailySummary = (date) =>
     api.get('/summary', { params: { date } }).then(r => r.data);
+
+export const markStatusBatch = (entries) =>
+    api.post('/status/batch', { entries }).then(r => r.data);
+
+export const getStatusRange = (from, to) =>
+    api.get('/status/range', { params: { from, to } }).then(r => r.data);
@@ -2,8 +2,16 @@ import api from './api';
 
 export const getAllTasks = () => api.get('/tasks').then(r => r.data);
 
+export const getTasksPage = (page = 0, size = 50) =>
+    api.get('/tasks/page', { params: { page, size } }).then(r => r.data);
+
 export const createTask = (task) => api.post('/tasks', task).then(r => r.data);
 
+export const importTasks = (tasks) => api.post('/tasks/import', tasks).then(r => r.data);
+
+export const importTasksCsv = (csv) =>
+    api.post('/tasks/import', csv, { headers: { 'Content-Type': 'text/csv' } }).then(r => r.data);
+
 export const updateTask = (id, task) => api.put(`/tasks/${id}`, task).then(r => r.data);
 
 export const completeTask = (id, data) => api.put(`/tasks/${id}/complete`, data).then(r => r.data);
@@ -13,4 +21,13 @@ export const getTask = (id) => api.get(`/tasks/${id}`).then(r => r.data);
 export const getTaskHistory = (filters) =>
     api.post('/tasks/history', filters).then(r => r.data);
 
+export const getTaskHistoryPage = (filters, cursor) =>
+    api.post('/tasks/history/cursor', { ...filters, cursor }).then(r => r.data);
+
+export const getTaskHistoryFacets = (filters) =>
+    api.post('/tasks/history/facets', filters).then(r => r.data);
+
+export const exportTaskHistory = (filters, format = 'csv') =>
+    api.get('/tasks/history/export', { params: { ...filters, format }, responseType: 'blob' }).then(r => r.data);
+
 export const deleteTask = (id) => api.delete(`/tasks/${id}`);